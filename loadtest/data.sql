@@ -0,0 +1,15 @@
+-- Massa de dados do perfil 'loadtest' (H2): um administrador e 10.000 usuários CLIENTE, cada um com seu cliente.
+-- Todas as senhas são '123456', com hash BCrypt de custo 10 (o mesmo de security.bcrypt.strength).
+INSERT INTO users (id, username, password, role)
+VALUES (1, 'admin@loadtest.com', '$2a$10$EwcX.WN3b3glB6jVcrGA0e5DYPGwfffyJOGD42kfGnhWgesPI.is6', 'ROLE_ADMIN');
+
+INSERT INTO users (id, username, password, role)
+SELECT X + 1, CONCAT('cliente', X, '@loadtest.com'), '$2a$10$EwcX.WN3b3glB6jVcrGA0e5DYPGwfffyJOGD42kfGnhWgesPI.is6', 'ROLE_CLIENTE'
+FROM SYSTEM_RANGE(1, 10000);
+
+INSERT INTO customers (id, nome, cpf, id_usuario)
+SELECT X, CONCAT('Cliente ', X), LPAD(CAST(X AS VARCHAR), 11, '0'), X + 1
+FROM SYSTEM_RANGE(1, 10000);
+
+ALTER TABLE users ALTER COLUMN id RESTART WITH 10002;
+ALTER TABLE customers ALTER COLUMN id RESTART WITH 10001;
@@ -0,0 +1,105 @@
+// Teste de carga da park-api com k6 (https://k6.io).
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e MODE=platform loadtest/park-api.js
+//
+// Mantém VUS conexões simultâneas (padrão 5000) durante DURATION, misturando as rotas de leitura de
+// ClienteResource e UserResource com uma fração de logins (AuthenticationResource), que são dominados pelo BCrypt.
+// O resumo (vazão e p99 por rota) é gravado em loadtest/results-<MODE>.json para comparação entre os modos.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODE = __ENV.MODE || 'platform';
+const VUS = parseInt(__ENV.VUS || '5000');
+const DURATION = __ENV.DURATION || '2m';
+const CLIENTES = 10000;
+// Percentual de iterações que fazem login em vez de usar um token já emitido
+const LOGIN_RATIO = parseFloat(__ENV.LOGIN_RATIO || '0.05');
+
+const routes = {
+    login: new Trend('route_login', true),
+    customers: new Trend('route_customers', true),
+    customerDetails: new Trend('route_customer_details', true),
+    user: new Trend('route_user', true),
+};
+
+export const options = {
+    scenarios: {
+        steady: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: DURATION, target: VUS },
+                { duration: '10s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+    discardResponseBodies: false,
+};
+
+function login(username) {
+    const res = http.post(`${BASE_URL}/api/v1/auth`,
+        JSON.stringify({ username: username, password: '123456' }),
+        { headers: { 'Content-Type': 'application/json' }, tags: { route: 'login' } });
+    routes.login.add(res.timings.duration);
+    check(res, { 'login 200': (r) => r.status === 200 });
+    return res.status === 200 ? res.json('token') : null;
+}
+
+function auth(token) {
+    return { headers: { Authorization: `Bearer ${token}` } };
+}
+
+// Um token de administrador e uma amostra de tokens de clientes, emitidos uma vez antes da carga
+export function setup() {
+    const clientes = [];
+    for (let i = 1; i <= 50; i++) {
+        clientes.push({ id: i + 1, token: login(`cliente${i}@loadtest.com`) });
+    }
+    return { admin: login('admin@loadtest.com'), clientes: clientes };
+}
+
+export default function (data) {
+    if (Math.random() < LOGIN_RATIO) {
+        login(`cliente${1 + Math.floor(Math.random() * CLIENTES)}@loadtest.com`);
+        return;
+    }
+    const cliente = data.clientes[Math.floor(Math.random() * data.clientes.length)];
+    const page = Math.floor(Math.random() * 100);
+
+    let res = http.get(`${BASE_URL}/api/v1/customers?withTotal=false&page=${page}&size=20`, auth(data.admin));
+    routes.customers.add(res.timings.duration);
+    check(res, { 'customers 200': (r) => r.status === 200 });
+
+    res = http.get(`${BASE_URL}/api/v1/customers/details`, auth(cliente.token));
+    routes.customerDetails.add(res.timings.duration);
+    check(res, { 'details 200': (r) => r.status === 200 });
+
+    res = http.get(`${BASE_URL}/api/v1/users/${cliente.id}`, auth(cliente.token));
+    routes.user.add(res.timings.duration);
+    check(res, { 'user 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    const metric = (name, stat) => data.metrics[name] ? data.metrics[name].values[stat] : null;
+    const summary = {
+        mode: MODE,
+        vus: VUS,
+        duration: DURATION,
+        throughput_rps: metric('http_reqs', 'rate'),
+        failed_rate: metric('http_req_failed', 'rate'),
+        p99_ms: metric('http_req_duration', 'p(99)'),
+        routes: Object.fromEntries(Object.keys(routes).map((route) => [route, {
+            p50_ms: metric(routes[route].name, 'med'),
+            p99_ms: metric(routes[route].name, 'p(99)'),
+        }])),
+    };
+    return {
+        [`loadtest/results-${MODE}.json`]: JSON.stringify(summary, null, 2),
+        stdout: JSON.stringify(summary, null, 2) + '\n',
+    };
+}
@@ -0,0 +1,76 @@
+package com.example.park_api.benchmarks;
+
+import com.example.park_api.jwt.JwtClaimsCache;
+import com.example.park_api.jwt.JwtToken;
+import com.example.park_api.jwt.JwtUtils;
+import com.example.park_api.jwt.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Custo de emissão e validação de tokens, com e sem o cache de claims usado pelo JwtAuthorizationFilter
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private String bearerToken;
+    private JwtClaimsCache claimsCache;
+    private TokenRevocationList revocationList;
+    private Claims claims;
+
+    @Setup
+    public void setup() {
+        JwtToken token = JwtUtils.createToken(1L, "ana@gmail.com", "ADMIN");
+        bearerToken = JwtUtils.JWT_BEARER + token.getToken();
+        claimsCache = new JwtClaimsCache(10_000);
+        claims = claimsCache.resolve(bearerToken, JwtUtils::getClaimsFromToken);
+
+        // Lista com 100 mil tokens e mil usuários revogados; o token do benchmark não está entre eles
+        revocationList = new TokenRevocationList(100_000);
+        long expiresAt = System.currentTimeMillis() + 3_600_000;
+        for (int i = 0; i < 100_000; i++) {
+            revocationList.revokeToken("revogado-" + i, expiresAt);
+        }
+        for (long i = 1_000; i < 2_000; i++) {
+            revocationList.revokeUser(i, System.currentTimeMillis(), expiresAt);
+        }
+    }
+
+    @Benchmark
+    public JwtToken createToken() {
+        return JwtUtils.createToken(1L, "ana@gmail.com", "ADMIN");
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return JwtUtils.isTokenValid(bearerToken);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return JwtUtils.getUsernameFromToken(bearerToken);
+    }
+
+    @Benchmark
+    public Claims getClaimsFromToken() {
+        return JwtUtils.getClaimsFromToken(bearerToken);
+    }
+
+    @Benchmark
+    public Claims resolveFromCache() {
+        return claimsCache.resolve(bearerToken, JwtUtils::getClaimsFromToken);
+    }
+
+    // Verificação feita pelo filtro a cada requisição autenticada (rode com -prof gc para conferir a ausência de alocação)
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean isRevoked() {
+        return revocationList.isRevoked(claims);
+    }
+}
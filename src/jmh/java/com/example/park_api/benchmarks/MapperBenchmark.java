@@ -0,0 +1,135 @@
+package com.example.park_api.benchmarks;
+
+import com.example.park_api.entities.Cliente;
+import com.example.park_api.entities.User;
+import com.example.park_api.resources.dto.ClienteResponseDTO;
+import com.example.park_api.resources.dto.PageableDto;
+import com.example.park_api.resources.dto.UserResponseDTO;
+import com.example.park_api.resources.dto.mapper.ClienteMapper;
+import com.example.park_api.resources.dto.mapper.PageableMapper;
+import com.example.park_api.resources.dto.mapper.UserMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.PropertyMap;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Compara os mappers atuais (campo a campo) com a implementação anterior, que criava um ModelMapper por chamada
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private static final int LIST_SIZE = 10_000;
+
+    private Cliente cliente;
+    private User user;
+    private List<User> users;
+    private Page<ClienteResponseDTO> page;
+
+    @Setup
+    public void setup() {
+        cliente = new Cliente();
+        cliente.setId(1L);
+        cliente.setNome("Maria Santos");
+        cliente.setCpf("89087145020");
+
+        user = user(1L);
+        users = new ArrayList<>(LIST_SIZE);
+        List<ClienteResponseDTO> content = new ArrayList<>(LIST_SIZE);
+        for (long i = 0; i < LIST_SIZE; i++) {
+            users.add(user(i));
+            content.add(new ClienteResponseDTO(i, "Cliente " + i, "89087145020"));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, LIST_SIZE), LIST_SIZE * 10L);
+    }
+
+    @Benchmark
+    public ClienteResponseDTO clienteToDto() {
+        return ClienteMapper.toDto(cliente);
+    }
+
+    @Benchmark
+    public ClienteResponseDTO clienteToDtoLegacy() {
+        return LegacyMappers.clienteToDto(cliente);
+    }
+
+    @Benchmark
+    public UserResponseDTO userToDto() {
+        return UserMapper.toDto(user);
+    }
+
+    @Benchmark
+    public UserResponseDTO userToDtoLegacy() {
+        return LegacyMappers.userToDto(user);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MINUTES)
+    public List<UserResponseDTO> userListToDto() {
+        return UserMapper.toListDto(users);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MINUTES)
+    public List<UserResponseDTO> userListToDtoLegacy() {
+        return LegacyMappers.userListToDto(users);
+    }
+
+    @Benchmark
+    public PageableDto pageToDto() {
+        return PageableMapper.toDto(page);
+    }
+
+    @Benchmark
+    public PageableDto pageToDtoLegacy() {
+        return LegacyMappers.pageToDto(page);
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id + "@gmail.com");
+        user.setPassword("$2a$12$owXthEOpMCf19KQFz/u8y.Cd3pJXBtf4Z7q2vm9TGUeFAy2HRiTC6");
+        user.setRole(id % 2 == 0 ? User.Role.ROLE_CLIENTE : User.Role.ROLE_ADMIN);
+        return user;
+    }
+
+    // Cópia fiel dos mappers baseados em ModelMapper, mantida apenas como linha de base
+    static final class LegacyMappers {
+
+        static ClienteResponseDTO clienteToDto(Cliente cliente) {
+            return new ModelMapper().map(cliente, ClienteResponseDTO.class);
+        }
+
+        static UserResponseDTO userToDto(User usuario) {
+            String role = usuario.getRole().name().substring("ROLE_".length());
+            PropertyMap<User, UserResponseDTO> props = new PropertyMap<User, UserResponseDTO>() {
+                @Override
+                protected void configure() {
+                    map().setRole(role);
+                }
+            };
+            ModelMapper mapper = new ModelMapper();
+            mapper.addMappings(props);
+            return mapper.map(usuario, UserResponseDTO.class);
+        }
+
+        static List<UserResponseDTO> userListToDto(List<User> users) {
+            return users.stream().map(LegacyMappers::userToDto).collect(Collectors.toList());
+        }
+
+        static PageableDto pageToDto(Page page) {
+            return new ModelMapper().map(page, PageableDto.class);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.park_api.benchmarks;
+
+import com.example.park_api.entities.Vaga;
+import com.example.park_api.repositories.projection.VagaProjection;
+import com.example.park_api.services.OcupacaoPorZona;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Contadores de ocupação sob 63 portões concorrentes (16 por zona) registrando ocupação e liberação, com um painel
+// lendo o retrato de todas as zonas ao mesmo tempo (o tick do stream SSE, aqui sem intervalo).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OcupacaoBenchmark {
+
+    private static final String[] ZONAS = {"A", "B", "C", "D"};
+
+    private OcupacaoPorZona ocupacao;
+
+    @Setup
+    public void setup() {
+        List<VagaProjection> vagas = new ArrayList<>();
+        long id = 1;
+        for (String zona : ZONAS) {
+            for (int i = 0; i < 1000; i++, id++) {
+                vagas.add(new Estado(id, zona, i % 2 == 0 ? Vaga.Status.OCUPADA : Vaga.Status.LIVRE));
+            }
+        }
+        ocupacao = new OcupacaoPorZona();
+        ocupacao.recarregar(ocupacao.iniciarRecontagem(), vagas);
+    }
+
+    // Cada portão (thread) atende sempre a mesma zona
+    @State(Scope.Thread)
+    public static class Portao {
+
+        private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+        final String zona = ZONAS[SEQUENCIA.getAndIncrement() % ZONAS.length];
+    }
+
+    @Benchmark
+    @Group("portoesEPainel")
+    @GroupThreads(63)
+    public void ocuparELiberar(Portao portao) {
+        ocupacao.ocupar(portao.zona);
+        ocupacao.liberar(portao.zona);
+    }
+
+    @Benchmark
+    @Group("portoesEPainel")
+    @GroupThreads(1)
+    public List<OcupacaoPorZona.Zona> consultar() {
+        return ocupacao.consultar();
+    }
+
+    private record Estado(Long id, String zona, Vaga.Status status) implements VagaProjection {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getCodigo() {
+            return zona + "-" + id;
+        }
+
+        @Override
+        public String getZona() {
+            return zona;
+        }
+
+        @Override
+        public Vaga.Status getStatus() {
+            return status;
+        }
+
+        @Override
+        public Long getVersao() {
+            return 0L;
+        }
+    }
+}
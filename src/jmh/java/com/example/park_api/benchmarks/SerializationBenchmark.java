@@ -0,0 +1,84 @@
+package com.example.park_api.benchmarks;
+
+import com.example.park_api.resources.dto.ClienteCreateDTO;
+import com.example.park_api.resources.dto.ClienteResponseDTO;
+import com.example.park_api.resources.dto.PageableDto;
+import com.example.park_api.resources.exception.ErrorMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização Jackson das respostas mais comuns, com o ObjectMapper configurado como no Spring Boot
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ErrorMessage errorMessage;
+    private ErrorMessage validationErrorMessage;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/customers");
+        errorMessage = new ErrorMessage(request, HttpStatus.CONFLICT, "CPF '89087145020' não pode ser cadastrado, já existe no sistema");
+
+        BeanPropertyBindingResult result = new BeanPropertyBindingResult(new ClienteCreateDTO(), "clienteCreateDTO");
+        result.rejectValue("nome", "NotBlank", "não deve estar em branco");
+        result.rejectValue("cpf", "CPF", "número do registro de contribuinte individual brasileiro (CPF) inválido");
+        validationErrorMessage = new ErrorMessage(request, HttpStatus.UNPROCESSABLE_ENTITY, "Campo(s) invalido(s)", result);
+    }
+
+    @Benchmark
+    public byte[] pageableDto(PageState state) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(state.page);
+    }
+
+    @Benchmark
+    public byte[] errorMessage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(errorMessage);
+    }
+
+    @Benchmark
+    public byte[] errorMessageWithFieldErrors() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(validationErrorMessage);
+    }
+
+    // Estado separado para que o tamanho da página não multiplique os benchmarks de ErrorMessage
+    @State(Scope.Benchmark)
+    public static class PageState {
+
+        @Param({"5", "100"})
+        private int pageSize;
+
+        private PageableDto page;
+
+        @Setup
+        public void setup() {
+            List<ClienteResponseDTO> content = new ArrayList<>(pageSize);
+            for (long i = 0; i < pageSize; i++) {
+                content.add(new ClienteResponseDTO(i, "Cliente " + i, "89087145020"));
+            }
+            page = new PageableDto();
+            page.setContent(content);
+            page.setFirst(true);
+            page.setSize(pageSize);
+            page.setNumberOfElements(pageSize);
+            page.setTotalPages(10);
+            page.setTotalElements(pageSize * 10);
+        }
+    }
+}
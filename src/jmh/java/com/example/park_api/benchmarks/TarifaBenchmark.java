@@ -0,0 +1,77 @@
+package com.example.park_api.benchmarks;
+
+import com.example.park_api.entities.Tarifa;
+import com.example.park_api.services.TabelaTarifa;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cálculos de tarifa por segundo sobre a tabela compilada (faixas diurna e noturna, teto diário e descontos).
+// calcular: um ticket por operação; com -prof gc a alocação por operação deve ficar em ~0 B/op.
+// recalcularDia: um dia de tickets encerrados por operação, em paralelo no pool fork-join comum.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TarifaBenchmark {
+
+    private static final int TICKETS = 100_000;
+
+    private TabelaTarifa tabela;
+    private long[] entradas;
+    private long[] saidas;
+    private long[] visitas;
+    private long[] valores;
+
+    @Setup
+    public void setup() {
+        Tarifa tarifa = new Tarifa();
+        tarifa.setId(1L);
+        tarifa.setFracaoMinutos(15);
+        tarifa.setTetoDiario(new BigDecimal("60.00"));
+        tarifa.setFaixas(List.of(
+                new Tarifa.Faixa(LocalTime.of(7, 0), LocalTime.of(19, 0), new BigDecimal("2.50")),
+                new Tarifa.Faixa(LocalTime.of(19, 0), LocalTime.of(7, 0), new BigDecimal("1.00"))));
+        tarifa.setDescontos(List.of(new Tarifa.Desconto(5, 5), new Tarifa.Desconto(20, 15)));
+        tabela = TabelaTarifa.compilar(tarifa);
+
+        // Entradas ao longo de um dia e permanências de 5 minutos a 3 dias
+        SplittableRandom random = new SplittableRandom(42);
+        long inicioDia = LocalDateTime.of(2024, 5, 10, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        entradas = new long[TICKETS];
+        saidas = new long[TICKETS];
+        visitas = new long[TICKETS];
+        valores = new long[TICKETS];
+        for (int i = 0; i < TICKETS; i++) {
+            entradas[i] = inicioDia + random.nextLong(86_400);
+            saidas[i] = entradas[i] + 300 + random.nextLong(3 * 86_400);
+            visitas[i] = random.nextInt(30);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int proximo;
+    }
+
+    @Benchmark
+    public long calcular(Cursor cursor) {
+        int i = cursor.proximo;
+        cursor.proximo = i + 1 == TICKETS ? 0 : i + 1;
+        return tabela.calcular(entradas[i], saidas[i], visitas[i]);
+    }
+
+    @Benchmark
+    public long[] recalcularDia() {
+        tabela.calcular(entradas, saidas, visitas, valores);
+        return valores;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.park_api.benchmarks;
+
+import com.example.park_api.entities.Vaga;
+import com.example.park_api.repositories.projection.VagaProjection;
+import com.example.park_api.services.VagaFreeIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Alocações por segundo com 64 portões concorrentes: cada operação reserva uma vaga livre no índice, registra a
+// ocupação e a libera em seguida (o banco fica de fora; aqui se mede só a disputa pelo índice).
+// Com vagasPorZona=64 todos os portões de uma zona disputam a mesma palavra do bitmap (pior caso).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class VagaFreeIndexBenchmark {
+
+    private static final String[] ZONAS = {"A", "B", "C", "D"};
+
+    @Param({"64", "1000"})
+    private int vagasPorZona;
+
+    private VagaFreeIndex index;
+
+    @Setup
+    public void setup() {
+        List<VagaProjection> vagas = new ArrayList<>();
+        long id = 1;
+        for (String zona : ZONAS) {
+            for (int i = 0; i < vagasPorZona; i++, id++) {
+                vagas.add(new Estado(id, zona + "-" + i, zona, Vaga.Status.LIVRE, 0L));
+            }
+        }
+        index = new VagaFreeIndex();
+        index.recarregar(vagas);
+    }
+
+    // Cada portão (thread) atende sempre a mesma zona, 16 portões por zona
+    @State(Scope.Thread)
+    public static class Portao {
+
+        private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+        final String zona = ZONAS[SEQUENCIA.getAndIncrement() % ZONAS.length];
+    }
+
+    @Benchmark
+    public long ocuparELiberar(Portao portao) {
+        VagaFreeIndex.Reserva reserva = index.reservar(portao.zona);
+        if (reserva == null) {
+            return -1;
+        }
+        index.atualizar(reserva.id(), reserva.versao() + 1, false);
+        index.atualizar(reserva.id(), reserva.versao() + 2, true);
+        return reserva.id();
+    }
+
+    private record Estado(Long id, String codigo, String zona, Vaga.Status status, Long versao) implements VagaProjection {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getCodigo() {
+            return codigo;
+        }
+
+        @Override
+        public String getZona() {
+            return zona;
+        }
+
+        @Override
+        public Vaga.Status getStatus() {
+            return status;
+        }
+
+        @Override
+        public Long getVersao() {
+            return versao;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.park_api.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Taxa de acerto do cache de prepared statements, a partir dos contadores do servidor MySQL:
+// cada Com_stmt_prepare é um statement que não estava em cache; Com_stmt_execute conta todas as execuções.
+// Os contadores são globais do servidor (todas as conexões de todas as instâncias e aplicações que usam o banco), por
+// isso os meters levam a tag scope=server. A leitura é feita por uma tarefa agendada: a coleta das métricas só lê a
+// última leitura e nunca espera pelo banco.
+@Slf4j
+@Profile("prod")
+@RequiredArgsConstructor
+@Component
+public class MySqlStatementMetrics implements MeterBinder {
+
+    private static final String STATUS_SQL =
+            "SHOW GLOBAL STATUS WHERE Variable_name IN ('Com_stmt_prepare', 'Com_stmt_execute')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Nenhuma leitura ainda: contadores em zero e taxa indefinida
+    private volatile Snapshot snapshot = new Snapshot(0, 0);
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mysql.statements.prepared", this, m -> m.snapshot.prepared)
+                .description("Statements preparados no servidor MySQL (ausentes do cache), de todas as conexões")
+                .tag("scope", "server")
+                .register(registry);
+        FunctionCounter.builder("mysql.statements.executed", this, m -> m.snapshot.executed)
+                .description("Execuções de prepared statements no servidor MySQL, de todas as conexões")
+                .tag("scope", "server")
+                .register(registry);
+        Gauge.builder("mysql.statements.cache.hit.ratio", this, MySqlStatementMetrics::taxaDeAcerto)
+                .description("Fração das execuções no servidor MySQL que reaproveitaram um statement já preparado")
+                .tag("scope", "server")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${mysql.statements.metrics.refresh-ms:10000}")
+    public void atualizar() {
+        try {
+            long[] valores = new long[2];
+            jdbcTemplate.query(STATUS_SQL, rs -> {
+                int index = "Com_stmt_prepare".equalsIgnoreCase(rs.getString(1)) ? 0 : 1;
+                valores[index] = rs.getLong(2);
+            });
+            snapshot = new Snapshot(valores[0], valores[1]);
+        } catch (DataAccessException ex) {
+            // Sem acesso aos contadores (ex.: permissão), mantém a última leitura e tenta de novo no próximo intervalo
+            log.warn("Falha ao ler os contadores de statements do MySQL: {}", ex.getMessage());
+        }
+    }
+
+    private double taxaDeAcerto() {
+        Snapshot atual = snapshot;
+        if (atual.executed == 0) {
+            return Double.NaN;
+        }
+        return Math.max(0, 1.0 - (double) atual.prepared / atual.executed);
+    }
+
+    private record Snapshot(long prepared, long executed) {
+    }
+}
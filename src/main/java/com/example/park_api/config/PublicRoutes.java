@@ -0,0 +1,104 @@
+package com.example.park_api.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.*;
+
+// Tabela de rotas públicas, montada uma única vez na inicialização.
+// Cada rota é resolvida por busca exata (HashMap), por prefixo ("/x/**") ou por sufixo na raiz ("/**.html"),
+// sem compilar padrões Ant a cada requisição. É usada tanto nas regras permitAll quanto pelo filtro JWT,
+// assim as duas listas não divergem.
+public final class PublicRoutes implements RequestMatcher {
+
+    // Swagger UI e especificação OpenAPI
+    public static final PublicRoutes DOCUMENTATION = new PublicRoutes(null,
+            "/docs/index.html",
+            "/docs-park.html", "/docs-park/**",
+            "/v3/api-docs/**",
+            "/swagger-ui-custom.html", "/swagger-ui.html", "/swagger-ui/**",
+            "/**.html", "/webjars/**", "/configuration/**", "/swagger-resources/**"
+    );
+
+    // Arquivos estáticos da documentação (sem a especificação, que muda a cada deploy)
+    public static final PublicRoutes DOCUMENTATION_ASSETS = new PublicRoutes(HttpMethod.GET,
+            "/swagger-ui/**", "/webjars/**"
+    );
+
+    // Cadastro de usuário, login e renovação do token
+    public static final PublicRoutes API = new PublicRoutes(HttpMethod.POST,
+            "/api/v1/users",
+            "/api/v1/auth",
+            "/api/v1/auth/refresh"
+    );
+
+    // Chaves públicas para a verificação dos tokens por outros serviços
+    public static final PublicRoutes JWKS = new PublicRoutes(HttpMethod.GET,
+            "/.well-known/jwks.json"
+    );
+
+    private final HttpMethod method;
+    private final Set<String> exact = new HashSet<>();
+    private final String[] prefixes;
+    private final String[] rootSuffixes;
+
+    private PublicRoutes(HttpMethod method, String... patterns) {
+        this.method = method;
+        List<String> prefixes = new ArrayList<>();
+        List<String> rootSuffixes = new ArrayList<>();
+        for (String pattern : patterns) {
+            if (pattern.startsWith("/**")) {
+                rootSuffixes.add(pattern.substring("/**".length()));
+            } else if (pattern.endsWith("/**")) {
+                // "/x/**" também casa com "/x"
+                String prefix = pattern.substring(0, pattern.length() - "/**".length());
+                exact.add(prefix);
+                prefixes.add(prefix + "/");
+            } else {
+                exact.add(pattern);
+            }
+        }
+        this.prefixes = prefixes.toArray(String[]::new);
+        this.rootSuffixes = rootSuffixes.toArray(String[]::new);
+    }
+
+    public static boolean isPublic(HttpServletRequest request) {
+        return API.matches(request) || JWKS.matches(request) || DOCUMENTATION.matches(request);
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        if (method != null && !method.matches(request.getMethod())) {
+            return false;
+        }
+        return matches(path(request));
+    }
+
+    boolean matches(String path) {
+        if (exact.contains(path)) {
+            return true;
+        }
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        // Sufixos valem apenas para arquivos na raiz, como o "**.html" do AntPathMatcher
+        if (path.indexOf('/', 1) < 0) {
+            for (String suffix : rootSuffixes) {
+                if (path.endsWith(suffix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Caminhos com "..", ";" ou barras codificadas já foram rejeitados pelo firewall do Spring Security
+    private static String path(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return contextPath.isEmpty() ? uri : uri.substring(contextPath.length());
+    }
+}
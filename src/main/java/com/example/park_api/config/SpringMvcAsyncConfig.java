@@ -0,0 +1,29 @@
+package com.example.park_api.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Executor dos envios de respostas reativas do MVC (o stream SSE de ocupação). Cada assinante escreve os seus eventos
+// em uma thread criada sob demanda, que termina quando não há mais o que enviar (virtual thread com o perfil virtual):
+// um painel que parou de ler bloqueia só a própria escrita, até o Tomcat desistir dela pelo timeout do socket e o
+// assinante ser descartado. Com um pool limitado, tantos painéis parados quantas threads no pool deixariam todos os
+// outros sem eventos. Os retornos CompletableFuture (ex.: login) não passam por este executor.
+@RequiredArgsConstructor
+@Configuration
+public class SpringMvcAsyncConfig implements WebMvcConfigurer {
+
+    private final Environment environment;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        executor.setDaemon(true);
+        configurer.setTaskExecutor(executor);
+    }
+}
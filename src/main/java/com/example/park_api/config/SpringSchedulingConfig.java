@@ -0,0 +1,10 @@
+package com.example.park_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita as tarefas periódicas (@Scheduled) da aplicação
+@EnableScheduling
+@Configuration
+public class SpringSchedulingConfig {
+}
@@ -2,9 +2,14 @@ package com.example.park_api.config;
 
 import com.example.park_api.jwt.JwtAuthenticationEntryPoint;
 import com.example.park_api.jwt.JwtAuthorizationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -14,22 +19,43 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.header.writers.DelegatingRequestMatcherHeaderWriter;
+import org.springframework.security.web.header.writers.StaticHeadersWriter;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 @EnableMethodSecurity // Habilita a segurança baseada em métodos (anotações como @PreAuthorize)
 @EnableWebMvc // Habilita o suporte ao Spring MVC (controladores REST e afins)
 @Configuration // Indica que essa classe é uma configuração do Spring
 public class SpringSecurityConfig {
-    private static final String[] DOCUMENTATION_OPENAPI = {
-            "/docs/index.html",
-            "/docs-park.html", "/docs-park/**",
-            "/v3/api-docs/**",
-            "/swagger-ui-custom.html", "/swagger-ui.html", "/swagger-ui/**",
-            "/**.html", "/webjars/**", "/configuration/**", "/swagger-resources/**"
-    };
+    // Tempo de cache dos arquivos estáticos do Swagger UI (versionados pelo webjar)
+    private static final String DOCUMENTATION_ASSETS_CACHE_CONTROL = "public, max-age=604800";
+
+    // Cadeia própria para a documentação: sem filtro JWT, sem contexto de segurança e sem os cabeçalhos no-cache padrão,
+    // para que o navegador possa guardar os arquivos estáticos do Swagger UI
+    @Bean
+    @Order(1)
+    public SecurityFilterChain documentationFilterChain(HttpSecurity http) throws Exception {
+        return http
+                .securityMatcher(PublicRoutes.DOCUMENTATION)
+                .csrf(csrf -> csrf.disable())
+                .formLogin(form -> form.disable())
+                .httpBasic(basic -> basic.disable())
+                .anonymous(anonymous -> anonymous.disable())
+                .requestCache(cache -> cache.disable())
+                .securityContext(context -> context.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .headers(headers -> headers
+                        .cacheControl(cache -> cache.disable())
+                        .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(PublicRoutes.DOCUMENTATION_ASSETS,
+                                new StaticHeadersWriter(HttpHeaders.CACHE_CONTROL, DOCUMENTATION_ASSETS_CACHE_CONTROL)))
+                )
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .build();
+    }
 
     // Define um bean que configura a cadeia de filtros de segurança
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         return http
                 // Desabilita a proteção CSRF (Cross-Site Request Forgery), pois a API é stateless
@@ -40,10 +66,12 @@ public class SpringSecurityConfig {
                 .httpBasic(basic -> basic.disable())
                 // Configura as regras de autorização para as requisições HTTP
                 .authorizeHttpRequests(auth -> auth
-                        // Permite todas as requisições POST para o endpoint "api/v1/usuarios"
-                        .requestMatchers(HttpMethod.POST, "api/v1/users").permitAll()
-                        .requestMatchers(HttpMethod.POST, "api/v1/auth").permitAll()
-                        .requestMatchers(DOCUMENTATION_OPENAPI).permitAll() //transforma as URIs em acesso publico, para poder acessar o swagger e etc
+                        // O despacho ASYNC só entrega o resultado de uma requisição que já foi autorizada (ex.: login assíncrono)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Cadastro de usuário e login são públicos (o filtro JWT nem chega a rodar nessas rotas)
+                        .requestMatchers(PublicRoutes.API).permitAll()
+                        .requestMatchers(PublicRoutes.JWKS).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") // Métricas da aplicação apenas para administradores
                         // Qualquer outra requisição precisa estar autenticada
                         .anyRequest().authenticated()
                 )
@@ -63,10 +91,20 @@ public class SpringSecurityConfig {
         return new JwtAuthorizationFilter();
     }
 
-    // Define um bean para codificação de senha usando BCrypt
+    // O filtro JWT é um bean apenas para receber as dependências; ele roda somente dentro da cadeia de segurança,
+    // e não registrado uma segunda vez como filtro do servlet container
+    @Bean
+    public FilterRegistrationBean<JwtAuthorizationFilter> jwtAuthorizationFilterRegistration(JwtAuthorizationFilter filter) {
+        FilterRegistrationBean<JwtAuthorizationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    // Define um bean para codificação de senha usando BCrypt.
+    // Ao aumentar o custo, os hashes antigos são regravados no próximo login bem-sucedido (upgradeEncoding)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength, MeterRegistry registry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(strength), registry);
     }
 
     // Define um bean para o gerenciador de autenticação
@@ -0,0 +1,41 @@
+package com.example.park_api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Mede o tempo gasto pelo encoder de senhas (BCrypt) em cada verificação de login e em cada novo hash
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.matchesTimer = timer(registry, "matches");
+        this.encodeTimer = timer(registry, "encode");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return Boolean.TRUE.equals(matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation) {
+        return Timer.builder("password.encoder")
+                .description("Tempo de hash e verificação de senhas")
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
@@ -2,6 +2,10 @@ package com.example.park_api.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -14,7 +18,14 @@ import java.util.Objects;
 
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 @Entity
-@Table(name = "customers")
+// Entidade e natural id mantidos no cache de segundo nível (regiões em ehcache.xml)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@Table(name = "customers", indexes = {
+        // Suporta a ordenação por nome e a paginação por keyset (nome, id)
+        @Index(name = "idx_customers_nome_id", columnList = "nome, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Cliente implements Serializable {
 
@@ -23,9 +34,11 @@ public class Cliente implements Serializable {
     private Long id;
     @Column(name = "nome", nullable = false, length = 100)
     private String nome;
+    @NaturalId
     @Column(name = "cpf", nullable = false, unique = true, length = 11)
     private String cpf;
-    @OneToOne
+    // Carregado sob demanda: buscas e listagens de clientes não disparam um select de usuário por linha
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_usuario", nullable = false)
     private User usuario;
 
@@ -0,0 +1,55 @@
+package com.example.park_api.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Resumo das visitas de um cliente (pelo CPF), mantido a cada saída gravada no banco em vez de recalculado a partir
+// dos eventos: os detalhes do cliente custam uma leitura por chave, qualquer que seja o tamanho do histórico.
+// As visitas mais recentes ficam na página atual desta linha; as páginas cheias vão para clientes_historico_paginas.
+@Getter @Setter @NoArgsConstructor
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "clientes_historico")
+public class ClienteHistorico implements Serializable {
+
+    @Id
+    @Column(name = "cpf", length = 11)
+    private String cpf;
+    @Column(name = "visitas", nullable = false)
+    private long visitas;
+    @Column(name = "total_gasto", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalGasto = BigDecimal.ZERO;
+    @Column(name = "ultima_visita", columnDefinition = "datetime(3)")
+    private LocalDateTime ultimaVisita;
+    @Column(name = "paginas_arquivadas", nullable = false)
+    private int paginasArquivadas;
+    // Layout colunar descrito em PaginaHistorico
+    @Column(name = "pagina_atual", nullable = false, length = 2048)
+    private byte[] paginaAtual;
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ClienteHistorico that = (ClienteHistorico) o;
+        return Objects.equals(cpf, that.cpf);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cpf);
+    }
+}
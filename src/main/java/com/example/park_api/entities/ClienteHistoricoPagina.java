@@ -0,0 +1,40 @@
+package com.example.park_api.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Página cheia do histórico de visitas de um cliente, numerada a partir de 0 na ordem em que foi arquivada
+@Getter @Setter @NoArgsConstructor
+@Entity
+@Table(name = "clientes_historico_paginas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_clientes_historico_paginas_cpf_numero", columnNames = {"cpf", "numero"}))
+public class ClienteHistoricoPagina implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "cpf", nullable = false, length = 11)
+    private String cpf;
+    @Column(name = "numero", nullable = false)
+    private int numero;
+    @Column(name = "dados", nullable = false, length = 2048)
+    private byte[] dados;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ClienteHistoricoPagina that = (ClienteHistoricoPagina) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.park_api.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Check;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Evento de entrada ou saída de um cliente (pelo CPF) em uma vaga. Tabela somente de inserção: os eventos chegam
+// primeiro ao journal local e são gravados aqui em lotes. O par (recibo, tipo) é único, então reenviar um evento
+// já gravado (ex.: replay do journal após uma queda) não cria linha duplicada.
+// A entrada sempre traz a versão da vaga ocupada e a saída, a data da entrada.
+@Getter @Setter @NoArgsConstructor
+@Entity
+@Check(name = "ck_estacionamento_eventos_tipo",
+        constraints = "(tipo = 'ENTRADA' and versao_vaga is not null) or (tipo = 'SAIDA' and data_entrada is not null)")
+@Table(name = "estacionamento_eventos",
+        uniqueConstraints = @UniqueConstraint(name = "uk_estacionamento_eventos_recibo_tipo", columnNames = {"recibo", "tipo"}),
+        indexes = @Index(name = "idx_estacionamento_eventos_cpf_data", columnList = "cpf, data_hora"))
+public class EstacionamentoEvento implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "recibo", nullable = false, length = 32)
+    private String recibo;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 10)
+    private Tipo tipo;
+    @Column(name = "cpf", nullable = false, length = 11)
+    private String cpf;
+    @Column(name = "id_vaga", nullable = false)
+    private Long vagaId;
+    @Column(name = "codigo_vaga", nullable = false, length = 10)
+    private String codigoVaga;
+    @Column(name = "zona", nullable = false, length = 10)
+    private String zona;
+    @Column(name = "data_hora", nullable = false, columnDefinition = "datetime(3)")
+    private LocalDateTime dataHora;
+    // Somente na saída: a data da entrada do mesmo recibo e o valor cobrado (nulo enquanto não houver tarifa)
+    @Column(name = "data_entrada", columnDefinition = "datetime(3)")
+    private LocalDateTime dataEntrada;
+    @Column(name = "valor", precision = 10, scale = 2)
+    private BigDecimal valor;
+    // Somente na entrada: versão da vaga depois da ocupação. O check-out libera a vaga apenas nessa versão, então um
+    // segundo check-out do mesmo recibo não libera a vaga já ocupada por outro cliente
+    @Column(name = "versao_vaga")
+    private Long versaoVaga;
+
+    public enum Tipo {
+        ENTRADA, SAIDA
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EstacionamentoEvento that = (EstacionamentoEvento) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
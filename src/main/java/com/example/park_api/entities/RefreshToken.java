@@ -0,0 +1,47 @@
+package com.example.park_api.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Sessão de refresh token: uma linha por login.
+// Apenas o SHA-256 do token é gravado; a cada renovação o hash e a expiração são substituídos na mesma linha (rotação),
+// limitados ao fim da sessão definido no login.
+@Getter @Setter @NoArgsConstructor
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_usuario", columnList = "id_usuario")
+})
+public class RefreshToken implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "token_hash", nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_usuario", nullable = false)
+    private User usuario;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    @Column(name = "session_expires_at", nullable = false)
+    private LocalDateTime sessionExpiresAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RefreshToken that = (RefreshToken) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.park_api.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Log de revogações compartilhado entre as instâncias: cada linha revoga um token (jti) ou todos os tokens de um usuário
+// emitidos antes de 'revoked_before'. Os instantes são epoch em milissegundos, sem depender da precisão do DATETIME.
+@Getter @Setter @NoArgsConstructor
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_criado_em", columnList = "criado_em")
+})
+public class RevokedToken implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "jti", length = 32)
+    private String jti;
+    @Column(name = "id_usuario")
+    private Long usuarioId;
+    @Column(name = "revoked_before")
+    private Long revokedBefore;
+    // Depois desse instante nenhum token afetado pela linha ainda é válido e ela pode ser removida
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+    @Column(name = "criado_em", nullable = false)
+    private Long criadoEm;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RevokedToken that = (RevokedToken) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
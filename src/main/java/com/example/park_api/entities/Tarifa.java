@@ -0,0 +1,85 @@
+package com.example.park_api.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Regras de cobrança do estacionamento. Cada alteração grava uma nova tarifa e a de maior id é a vigente; as
+// anteriores ficam como histórico. As regras não são consultadas no check-out: TabelaTarifa as compila em tabelas.
+@Getter @Setter @NoArgsConstructor
+@Entity
+@Table(name = "tarifas")
+@EntityListeners(AuditingEntityListener.class)
+public class Tarifa implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // A permanência é cobrada por frações iniciadas; cada fração custa o valor da faixa em que começa
+    @Column(name = "fracao_minutos", nullable = false)
+    private int fracaoMinutos;
+    // Máximo cobrado a cada 24h de permanência, contadas da entrada (nulo: sem teto)
+    @Column(name = "teto_diario", precision = 10, scale = 2)
+    private BigDecimal tetoDiario;
+    @ElementCollection
+    @CollectionTable(name = "tarifas_faixas", joinColumns = @JoinColumn(name = "id_tarifa"))
+    private List<Faixa> faixas = new ArrayList<>();
+    @ElementCollection
+    @CollectionTable(name = "tarifas_descontos", joinColumns = @JoinColumn(name = "id_tarifa"))
+    private List<Desconto> descontos = new ArrayList<>();
+
+    @CreatedDate
+    @Column(name = "data_criacao")
+    private LocalDateTime dataCriacao;
+    @CreatedBy
+    @Column(name = "criado_por")
+    private String criadoPor;
+
+    // Valor de cada fração iniciada entre inicio (inclusive) e fim (exclusive); fim <= inicio atravessa a meia-noite
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor
+    @Embeddable
+    public static class Faixa implements Serializable {
+        @Column(name = "inicio", nullable = false)
+        private LocalTime inicio;
+        @Column(name = "fim", nullable = false)
+        private LocalTime fim;
+        @Column(name = "valor_fracao", nullable = false, precision = 10, scale = 2)
+        private BigDecimal valorFracao;
+    }
+
+    // Desconto para clientes que já têm ao menos visitasMinimas visitas encerradas
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor
+    @Embeddable
+    public static class Desconto implements Serializable {
+        @Column(name = "visitas_minimas", nullable = false)
+        private int visitasMinimas;
+        @Column(name = "percentual", nullable = false)
+        private int percentual;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Tarifa tarifa = (Tarifa) o;
+        return Objects.equals(id, tarifa.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.park_api.entities;
+
+// Evento publicado sempre que um usuário é alterado ou removido (senha, role, etc.)
+public record UserChangedEvent(Long id, String username) {
+}
@@ -0,0 +1,22 @@
+package com.example.park_api.entities;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Listener JPA gerenciado pelo Spring: qualquer UPDATE/DELETE em `users` publica um UserChangedEvent,
+// permitindo que caches de usuário sejam invalidados independentemente de qual serviço fez a alteração
+@RequiredArgsConstructor
+@Component
+public class UserChangedListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+    }
+}
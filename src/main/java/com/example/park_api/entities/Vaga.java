@@ -0,0 +1,55 @@
+package com.example.park_api.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Vaga do estacionamento. A ocupação é decidida pelo VagaFreeIndex em memória e gravada com um update condicional
+// na versão: o banco continua sendo a fonte da verdade e um índice desatualizado nunca entrega a mesma vaga duas vezes.
+@Getter @Setter @NoArgsConstructor
+@Entity
+@Table(name = "vagas", indexes = {
+        // Carga do índice na inicialização, agrupada por zona
+        @Index(name = "idx_vagas_zona_id", columnList = "zona, id")
+})
+public class Vaga implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "codigo", nullable = false, unique = true, length = 10)
+    private String codigo;
+    @Column(name = "zona", nullable = false, length = 10)
+    private String zona;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private Status status = Status.LIVRE;
+    // CPF do cliente que ocupa a vaga pelo check-in (nulo se livre ou ocupada manualmente). Único: o banco recusa o
+    // mesmo cliente em duas vagas, mesmo quando os check-ins passam por instâncias diferentes
+    @Column(name = "cpf_ocupante", unique = true, length = 11)
+    private String cpfOcupante;
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    public enum Status {
+        LIVRE, OCUPADA
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Vaga vaga = (Vaga) o;
+        return Objects.equals(id, vaga.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
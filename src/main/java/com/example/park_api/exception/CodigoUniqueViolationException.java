@@ -0,0 +1,7 @@
+package com.example.park_api.exception;
+
+public class CodigoUniqueViolationException extends RuntimeException {
+    public CodigoUniqueViolationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.park_api.exception;
+
+public class EstacionamentoEmAbertoException extends RuntimeException {
+    public EstacionamentoEmAbertoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.park_api.exception;
+
+public class TarifaInvalidaException extends RuntimeException {
+    public TarifaInvalidaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.park_api.exception;
+
+public class VagaIndisponivelException extends RuntimeException {
+    public VagaIndisponivelException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,468 @@
+package com.example.park_api.journal;
+
+import com.example.park_api.entities.EstacionamentoEvento;
+import com.example.park_api.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+// Journal local (write-ahead) dos eventos de entrada e saída.
+// As requisições enfileiram o evento e esperam; uma única thread junta tudo o que chegou em um lote, faz um write e um
+// fsync e libera todas de uma vez (group commit). A latência do portão fica limitada ao fsync local, e o banco
+// recebe os eventos depois, em lotes, pelo EstacionamentoService.
+// Formato de cada registro: tamanho do evento (int), seq (long), evento, CRC32 de seq + evento (int). Os segmentos
+// 'journal-<primeira seq>.log' são apagados quando todos os seus registros já estão no banco (arquivo 'checkpoint').
+@Slf4j
+@Component
+public class EstacionamentoJournal implements MeterBinder, DisposableBean {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    // Versão do formato do evento, gravada em cada registro; um registro de outra versão é tratado como corrompido
+    private static final byte FORMATO = 1;
+    private static final long SEM_VALOR = Long.MIN_VALUE;
+    private static final int MAX_EVENTO = 4096;
+
+    private static final int NOVO = 0;
+    private static final int GRAVANDO = 1;
+    private static final int CANCELADO = 2;
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final int maxLote;
+    private final int maxPendentes;
+    private final BlockingQueue<Pedido> fila;
+
+    // Eventos já duráveis no journal e ainda não gravados no banco, em ordem de seq; consumidor único (o flusher)
+    private final ConcurrentLinkedQueue<Registro> pendentes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger totalPendentes = new AtomicInteger();
+    // Primeira seq de cada segmento -> arquivo
+    private final ConcurrentSkipListMap<Long, Path> segmentos = new ConcurrentSkipListMap<>();
+
+    private final Thread writer;
+    private volatile boolean ativo = true;
+
+    // Acessados apenas pela thread de escrita depois do construtor
+    private FileChannel canal;
+    private long ultimaSeq;
+
+    private volatile long checkpoint;
+    private volatile Timer fsyncTimer;
+    private volatile DistributionSummary loteSummary;
+
+    @Autowired
+    public EstacionamentoJournal(@Value("${estacionamento.journal.dir:data/journal}") String dir,
+                                 @Value("${estacionamento.journal.segment-size:64MB}") DataSize segmentSize,
+                                 @Value("${estacionamento.journal.queue-capacity:10000}") int capacidade,
+                                 @Value("${estacionamento.journal.max-batch:1000}") int maxLote,
+                                 @Value("${estacionamento.journal.max-pending:1000000}") int maxPendentes) throws IOException {
+        this(Path.of(dir), segmentSize.toBytes(), capacidade, maxLote, maxPendentes);
+    }
+
+    public EstacionamentoJournal(Path dir, long segmentBytes, int capacidade, int maxLote, int maxPendentes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxLote = maxLote;
+        this.maxPendentes = maxPendentes;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        Files.createDirectories(dir);
+        recuperar();
+        this.writer = new Thread(this::escrever, "estacionamento-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Grava o evento e só retorna depois do fsync; devolve a seq do registro.
+    // Journal cheio, lento ou com falha de disco resulta em 503: o portão tenta de novo sem registrar nada
+    public long gravar(EstacionamentoEvento evento, Duration timeout) {
+        Pedido pedido = new Pedido(evento);
+        if (!ativo || totalPendentes.get() >= maxPendentes || !fila.offer(pedido)) {
+            throw new ServiceUnavailableException("Registro de estacionamento sobrecarregado, tente novamente em instantes");
+        }
+        try {
+            return pedido.gravado.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (pedido.estado.compareAndSet(NOVO, CANCELADO)) {
+                // Ainda não foi escrito e não será mais
+                throw new ServiceUnavailableException("Registro de estacionamento sobrecarregado, tente novamente em instantes");
+            }
+            // A escrita já começou: o resultado sai com o fsync em andamento
+            try {
+                return pedido.gravado.join();
+            } catch (CompletionException failure) {
+                throw falhaDeGravacao(failure.getCause());
+            }
+        } catch (ExecutionException ex) {
+            throw falhaDeGravacao(ex.getCause());
+        }
+    }
+
+    // Até 'max' eventos duráveis ainda não gravados no banco, na ordem do journal, sem removê-los
+    public List<Registro> pendentes(int max) {
+        List<Registro> registros = new ArrayList<>(Math.min(max, totalPendentes.get()));
+        for (Registro registro : pendentes) {
+            if (registros.size() == max) {
+                break;
+            }
+            registros.add(registro);
+        }
+        return registros;
+    }
+
+    // Confirma que os 'quantidade' primeiros pendentes estão no banco: avança o checkpoint e apaga os segmentos cobertos
+    public void confirmar(int quantidade) {
+        Registro ultimo = null;
+        for (int i = 0; i < quantidade; i++) {
+            ultimo = pendentes.poll();
+        }
+        if (ultimo == null) {
+            return;
+        }
+        totalPendentes.addAndGet(-quantidade);
+        gravarCheckpoint(ultimo.seq());
+        removerSegmentosConfirmados();
+    }
+
+    public int totalPendentes() {
+        return totalPendentes.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("estacionamento.journal.pendentes", this, EstacionamentoJournal::totalPendentes)
+                .description("Eventos gravados no journal e ainda não gravados no banco")
+                .register(registry);
+        fsyncTimer = Timer.builder("estacionamento.journal.fsync")
+                .description("Tempo de write + fsync de cada lote do journal")
+                .register(registry);
+        loteSummary = DistributionSummary.builder("estacionamento.journal.lote")
+                .description("Eventos por fsync do journal")
+                .register(registry);
+    }
+
+    // Para de aceitar eventos, grava os que já estão na fila e fecha o segmento atual
+    @Override
+    public void destroy() throws Exception {
+        ativo = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        canal.close();
+    }
+
+    private void escrever() {
+        List<Pedido> lote = new ArrayList<>(maxLote);
+        while (ativo || !fila.isEmpty()) {
+            Pedido primeiro;
+            try {
+                primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                continue;
+            }
+            if (primeiro == null) {
+                continue;
+            }
+            lote.add(primeiro);
+            fila.drainTo(lote, maxLote - 1);
+            gravarLote(lote);
+            lote.clear();
+        }
+    }
+
+    private void gravarLote(List<Pedido> lote) {
+        List<Pedido> aceitos = new ArrayList<>(lote.size());
+        List<Registro> registros = new ArrayList<>(lote.size());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(lote.size() * 128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        long seq = ultimaSeq;
+        try {
+            for (Pedido pedido : lote) {
+                // Pedidos cujo tempo de espera acabou antes de chegar aqui são descartados
+                if (!pedido.estado.compareAndSet(NOVO, GRAVANDO)) {
+                    continue;
+                }
+                escreverRegistro(out, ++seq, pedido.evento);
+                aceitos.add(pedido);
+                registros.add(new Registro(seq, pedido.evento));
+            }
+        } catch (IOException | RuntimeException ex) {
+            aceitos.forEach(pedido -> pedido.gravado.completeExceptionally(ex));
+            return;
+        }
+        if (aceitos.isEmpty()) {
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        long tamanhoAnterior = -1;
+        try {
+            if (canal.size() >= segmentBytes) {
+                abrirSegmento(ultimaSeq + 1);
+            }
+            tamanhoAnterior = canal.size();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        } catch (IOException ex) {
+            log.error("Falha ao gravar {} eventos no journal de estacionamento: {}", aceitos.size(), ex.toString());
+            if (tamanhoAnterior >= 0) {
+                try {
+                    // Descarta o lote parcial: a próxima escrita continua depois do último registro completo
+                    canal.truncate(tamanhoAnterior);
+                } catch (IOException ignored) {
+                    // A recuperação na inicialização também descarta registros incompletos
+                }
+            }
+            aceitos.forEach(pedido -> pedido.gravado.completeExceptionally(ex));
+            return;
+        }
+        ultimaSeq = seq;
+        pendentes.addAll(registros);
+        totalPendentes.addAndGet(registros.size());
+        for (int i = 0; i < aceitos.size(); i++) {
+            aceitos.get(i).gravado.complete(registros.get(i).seq());
+        }
+
+        Timer timer = fsyncTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            loteSummary.record(aceitos.size());
+        }
+    }
+
+    // Lê o checkpoint e os segmentos, coloca de volta em 'pendentes' os eventos que ainda não chegaram ao banco
+    // e descarta um registro final incompleto (queda no meio de uma escrita)
+    private void recuperar() throws IOException {
+        checkpoint = lerCheckpoint();
+        long seq = checkpoint;
+        List<Path> arquivos = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            files.forEach(arquivos::add);
+        }
+        arquivos.sort(null);
+        for (Path arquivo : arquivos) {
+            segmentos.put(primeiraSeq(arquivo), arquivo);
+            // O nome do segmento também conta: o checkpoint é gravado sem fsync e, se uma queda o levar depois de um
+            // segmento novo (ainda vazio) ser aberto, a numeração tem que continuar depois dele
+            seq = Math.max(seq, primeiraSeq(arquivo) - 1);
+            try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(leitura), 1 << 16));
+                long valido = 0;
+                while (true) {
+                    Lido lido = lerRegistro(in);
+                    if (lido == null) {
+                        break;
+                    }
+                    Registro registro = lido.registro();
+                    valido += lido.tamanho();
+                    seq = Math.max(seq, registro.seq());
+                    if (registro.seq() > checkpoint) {
+                        pendentes.add(registro);
+                        totalPendentes.incrementAndGet();
+                    }
+                }
+                if (valido < leitura.size()) {
+                    log.warn("Journal {}: {} bytes finais incompletos ou corrompidos descartados",
+                            arquivo.getFileName(), leitura.size() - valido);
+                    leitura.truncate(valido);
+                    leitura.force(true);
+                }
+            }
+        }
+        ultimaSeq = seq;
+        if (segmentos.isEmpty() || Files.size(segmentos.lastEntry().getValue()) >= segmentBytes) {
+            abrirSegmento(ultimaSeq + 1);
+        } else {
+            canal = FileChannel.open(segmentos.lastEntry().getValue(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        removerSegmentosConfirmados();
+        if (totalPendentes.get() > 0) {
+            log.info("Journal de estacionamento: {} eventos ainda não gravados no banco serão reenviados", totalPendentes.get());
+        }
+    }
+
+    private void abrirSegmento(long primeiraSeq) throws IOException {
+        Path arquivo = dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, primeiraSeq, SEGMENT_SUFFIX));
+        FileChannel novo = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        forcarDiretorio();
+        if (canal != null) {
+            canal.close();
+        }
+        canal = novo;
+        segmentos.put(primeiraSeq, arquivo);
+    }
+
+    // O segmento é apagado quando o próximo começa em uma seq já confirmada; o segmento atual nunca é apagado
+    private void removerSegmentosConfirmados() {
+        Long primeira = segmentos.firstKey();
+        Long proxima;
+        while ((proxima = segmentos.higherKey(primeira)) != null && proxima - 1 <= checkpoint) {
+            Path arquivo = segmentos.remove(primeira);
+            try {
+                Files.deleteIfExists(arquivo);
+            } catch (IOException ex) {
+                log.warn("Falha ao remover o segmento {} do journal: {}", arquivo.getFileName(), ex.toString());
+            }
+            primeira = proxima;
+        }
+    }
+
+    // Gravado com rename atômico e sem fsync: se uma queda levar o checkpoint mais recente, os eventos são reenviados
+    // e o banco ignora os já gravados (recibo e tipo únicos)
+    private void gravarCheckpoint(long seq) {
+        try {
+            Path tmp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(tmp, Long.toString(seq));
+            Files.move(tmp, dir.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            checkpoint = seq;
+        } catch (IOException ex) {
+            log.warn("Falha ao gravar o checkpoint do journal: {}", ex.toString());
+        }
+    }
+
+    private long lerCheckpoint() throws IOException {
+        Path arquivo = dir.resolve(CHECKPOINT_FILE);
+        return Files.exists(arquivo) ? Long.parseLong(Files.readString(arquivo).trim()) : 0;
+    }
+
+    // Garante que a criação do segmento sobreviva a uma queda (no Linux o diretório pode ser sincronizado)
+    private void forcarDiretorio() {
+        try (FileChannel diretorio = FileChannel.open(dir, StandardOpenOption.READ)) {
+            diretorio.force(true);
+        } catch (IOException ignored) {
+            // Sistemas de arquivos que não permitem abrir diretórios
+        }
+    }
+
+    private static long primeiraSeq(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return Long.parseLong(nome.substring(SEGMENT_PREFIX.length(), nome.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void escreverRegistro(DataOutputStream out, long seq, EstacionamentoEvento evento) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream corpo = new DataOutputStream(bytes);
+        corpo.writeLong(seq);
+        corpo.writeByte(FORMATO);
+        corpo.writeUTF(evento.getRecibo());
+        corpo.writeByte(evento.getTipo().ordinal());
+        corpo.writeUTF(evento.getCpf());
+        corpo.writeLong(evento.getVagaId());
+        corpo.writeUTF(evento.getCodigoVaga());
+        corpo.writeUTF(evento.getZona());
+        // Data local gravada como epoch em UTC apenas para caber em um long; a leitura faz a conversão inversa
+        corpo.writeLong(epochMilli(evento.getDataHora()));
+        corpo.writeLong(evento.getDataEntrada() == null ? SEM_VALOR : epochMilli(evento.getDataEntrada()));
+        corpo.writeLong(evento.getValor() == null ? SEM_VALOR : evento.getValor().movePointRight(2).longValueExact());
+        corpo.writeLong(evento.getVersaoVaga() == null ? SEM_VALOR : evento.getVersaoVaga());
+        byte[] dados = bytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(dados);
+        out.writeInt(dados.length - Long.BYTES);
+        out.write(dados);
+        out.writeInt((int) crc.getValue());
+    }
+
+    // null no fim do arquivo ou em um registro incompleto/corrompido
+    private static Lido lerRegistro(DataInputStream in) throws IOException {
+        try {
+            int tamanho = in.readInt();
+            if (tamanho <= 0 || tamanho > MAX_EVENTO) {
+                return null;
+            }
+            byte[] dados = new byte[Long.BYTES + tamanho];
+            in.readFully(dados);
+            int crcGravado = in.readInt();
+            CRC32 crc = new CRC32();
+            crc.update(dados);
+            if ((int) crc.getValue() != crcGravado) {
+                return null;
+            }
+            DataInputStream corpo = new DataInputStream(new ByteArrayInputStream(dados));
+            long seq = corpo.readLong();
+            byte formato = corpo.readByte();
+            if (formato != FORMATO) {
+                return null;
+            }
+            EstacionamentoEvento evento = new EstacionamentoEvento();
+            evento.setRecibo(corpo.readUTF());
+            evento.setTipo(EstacionamentoEvento.Tipo.values()[corpo.readByte()]);
+            evento.setCpf(corpo.readUTF());
+            evento.setVagaId(corpo.readLong());
+            evento.setCodigoVaga(corpo.readUTF());
+            evento.setZona(corpo.readUTF());
+            evento.setDataHora(dataHora(corpo.readLong()));
+            long dataEntrada = corpo.readLong();
+            long valor = corpo.readLong();
+            long versaoVaga = corpo.readLong();
+            evento.setDataEntrada(dataEntrada == SEM_VALOR ? null : dataHora(dataEntrada));
+            evento.setValor(valor == SEM_VALOR ? null : BigDecimal.valueOf(valor, 2));
+            evento.setVersaoVaga(versaoVaga == SEM_VALOR ? null : versaoVaga);
+            return new Lido(new Registro(seq, evento), Integer.BYTES + dados.length + Integer.BYTES);
+        } catch (EOFException ex) {
+            return null;
+        }
+    }
+
+    private static long epochMilli(LocalDateTime dataHora) {
+        return dataHora.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime dataHora(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
+
+    private static ServiceUnavailableException falhaDeGravacao(Throwable causa) {
+        log.warn("Evento de estacionamento não gravado no journal: {}", String.valueOf(causa));
+        return new ServiceUnavailableException("Falha ao registrar o evento de estacionamento, tente novamente em instantes");
+    }
+
+    // Evento durável no journal com a sua seq
+    public record Registro(long seq, EstacionamentoEvento evento) {
+    }
+
+    // Registro lido na recuperação e quantos bytes ele ocupa no segmento
+    private record Lido(Registro registro, int tamanho) {
+    }
+
+    private static final class Pedido {
+
+        private final EstacionamentoEvento evento;
+        private final CompletableFuture<Long> gravado = new CompletableFuture<>();
+        // NOVO -> GRAVANDO (thread de escrita) ou NOVO -> CANCELADO (tempo de espera esgotado)
+        private final AtomicInteger estado = new AtomicInteger(NOVO);
+
+        private Pedido(EstacionamentoEvento evento) {
+            this.evento = evento;
+        }
+    }
+}
@@ -16,9 +16,9 @@ public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
     // Aqui, ele é usado para lidar com solicitações não autenticadas que tentam acessar recursos protegidos.
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException) throws IOException, ServletException {
-        // Registrar uma mensagem de log sempre que a exceção de autenticação ocorrer.
-        // O log conterá o status HTTP 401 (não autorizado) e a mensagem da exceção.
-        log.info("Http Status 401 {}", authException.getMessage());
+        // Registrar uma mensagem de log sempre que a exceção de autenticação ocorrer (em DEBUG: acontece a cada
+        // requisição sem token válido). O log conterá o status HTTP 401 (não autorizado) e a mensagem da exceção.
+        log.debug("Http Status 401 {}", authException.getMessage());
 
         // Adicionar um cabeçalho na resposta HTTP para informar que a autenticação deve ser feita via JWT (Bearer Token).
         response.setHeader("www-authenticate", "Bearer realm='/api/v1/auth'");
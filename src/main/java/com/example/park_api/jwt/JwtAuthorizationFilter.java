@@ -1,6 +1,11 @@
 package com.example.park_api.jwt;
 
 // Importações de classes essenciais para captura e autenticação de requisições
+import com.example.park_api.config.PublicRoutes;
+import com.example.park_api.logging.LogSampler;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,13 +19,39 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
+    // No máximo 5 linhas de token inválido a cada 10s; as demais são apenas contadas
+    private final LogSampler invalidTokenLog = new LogSampler(5, 10, TimeUnit.SECONDS);
+
     @Autowired
     private JwtUserDetailsService userDetailsService;
 
+    @Autowired
+    private JwtClaimsCache claimsCache;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    // Tempo de validação do token (cache ou verificação de assinatura), separado por resultado
+    private Timer validTokenTimer;
+    private Timer invalidTokenTimer;
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry registry) {
+        this.validTokenTimer = validationTimer(registry, "valid");
+        this.invalidTokenTimer = validationTimer(registry, "invalid");
+    }
+
+    // Rotas públicas (login, cadastro, documentação) não leem o cabeçalho Authorization
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PublicRoutes.isPublic(request);
+    }
+
     // Metodo que intercepta todas as requisições HTTP e verifica a presença de um token JWT
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -28,29 +59,42 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
         final String token = request.getHeader(JwtUtils.JWT_AUTHORIZATION);
 
         if (token == null || !token.startsWith(JwtUtils.JWT_BEARER)) {
-            log.info("JWT Token está nulo, vazio ou não iniciado com 'Bearer '.");
+            log.debug("JWT Token está nulo, vazio ou não iniciado com 'Bearer '.");
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (!JwtUtils.isTokenValid(token)) {
-            log.warn("JWT Token está inválido ou expirado.");
+        // Valida o token uma única vez; tokens já verificados são resolvidos pelo cache sem nova verificação de assinatura
+        long start = System.nanoTime();
+        Claims claims = claimsCache.resolve(token, JwtUtils::getClaimsFromToken);
+        (claims != null ? validTokenTimer : invalidTokenTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (claims == null) {
+            long suppressed = invalidTokenLog.tryAcquire();
+            if (suppressed >= 0) {
+                log.warn("event=jwt_invalid method={} path={} remote={} suppressed={}",
+                        request.getMethod(), request.getRequestURI(), request.getRemoteAddr(), suppressed);
+            }
             filterChain.doFilter(request, response);
             return;
         }
 
-        String username = JwtUtils.getUsernameFromToken(token);
+        // Token revogado (logout, troca de senha): segue sem autenticação, como um token inválido
+        if (revocationList.isRevoked(claims)) {
+            log.debug("Token revogado: method={} path={}", request.getMethod(), request.getRequestURI());
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        // Autentica o usuário com base no username
-        toAuthentication(request, username);
+        // Autentica o usuário com base nos claims do token
+        toAuthentication(request, claims);
 
         filterChain.doFilter(request, response);
     }
 
-    // Metodo responsável por autenticar o usuário com base no username
-    private void toAuthentication(HttpServletRequest request, String username) {
-        // Carrega os detalhes do usuário a partir do username
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+    // Metodo responsável por autenticar o usuário com base nos claims do token
+    private void toAuthentication(HttpServletRequest request, Claims claims) {
+        // Monta os detalhes do usuário a partir dos claims (ou do banco, conforme jwt.principal.mode)
+        UserDetails userDetails = userDetailsService.loadUserByClaims(claims);
 
         // Cria um token de autenticação com os detalhes do usuário e suas autoridades (roles/permissões)
         UsernamePasswordAuthenticationToken authenticationToken =
@@ -62,4 +106,11 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
         // Armazena o token de autenticação no contexto de segurança do Spring Security
         SecurityContextHolder.getContext().setAuthentication(authenticationToken);
     }
+
+    private static Timer validationTimer(MeterRegistry registry, String result) {
+        return Timer.builder("jwt.validation")
+                .description("Tempo de validação do token JWT no filtro de autorização")
+                .tag("result", result)
+                .register(registry);
+    }
 }
@@ -0,0 +1,146 @@
+package com.example.park_api.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Cache limitado dos claims de tokens JWT já verificados.
+// A chave é o SHA-256 do token (o token em si não fica retido em memória) e cada entrada expira junto com o 'exp' do token,
+// assim um token válido só passa pela verificação da assinatura na primeira requisição.
+@Component
+public class JwtClaimsCache implements MeterBinder {
+
+    private static final MessageDigest SHA_256 = sha256();
+
+    private final Map<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public JwtClaimsCache(@Value("${jwt.claims-cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    // Retorna os claims do token a partir do cache ou, em caso de ausência, do parser informado.
+    // Retorna null quando o parser rejeita o token (assinatura inválida, expirado, etc.)
+    public Claims resolve(String token, Function<String, Claims> parser) {
+        ByteBuffer key = digest(token);
+        long now = System.currentTimeMillis();
+
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt > now) {
+                hits.increment();
+                return entry.claims;
+            }
+            // Token expirou desde que foi armazenado
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        }
+        misses.increment();
+
+        Claims claims = parser.apply(token);
+        if (claims == null) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        if (expiration != null && expiration.getTime() > now) {
+            if (entries.size() >= maxSize) {
+                makeRoom(now);
+            }
+            entries.put(key, new Entry(claims, expiration.getTime()));
+        }
+        return claims;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.claims.cache.hits", this, JwtClaimsCache::getHits)
+                .description("Tokens resolvidos pelo cache, sem verificação de assinatura")
+                .register(registry);
+        FunctionCounter.builder("jwt.claims.cache.misses", this, JwtClaimsCache::getMisses)
+                .description("Tokens que precisaram ser verificados pelo parser")
+                .register(registry);
+        FunctionCounter.builder("jwt.claims.cache.evictions", this, JwtClaimsCache::getEvictions)
+                .description("Entradas removidas por expiração ou por falta de espaço")
+                .register(registry);
+        Gauge.builder("jwt.claims.cache.size", this, JwtClaimsCache::size)
+                .register(registry);
+    }
+
+    // Remove primeiro as entradas expiradas; se o cache continuar cheio, descarta ~10% das entradas restantes
+    private void makeRoom(long now) {
+        entries.entrySet().removeIf(e -> {
+            if (e.getValue().expiresAt <= now) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<ByteBuffer> it = entries.keySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest md = (MessageDigest) SHA_256.clone();
+            return ByteBuffer.wrap(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.park_api.jwt;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.*;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Chaves ES256 usadas para assinar e verificar os tokens, identificadas pelo header 'kid'.
+// Ciclo de vida de uma chave:
+//  - publicada no JWKS 'prepublish' antes de começar a assinar (caches de JWKS de outros serviços já a conhecem);
+//  - assina tokens até a próxima chave ficar ativa ('rotation' depois);
+//  - continua aceita na verificação por mais 'overlap' (>= validade do access token) e então é descartada.
+// Com 'jwt.keys.dir' definido as chaves ficam em um diretório compartilhado, assim todas as instâncias assinam e
+// verificam com o mesmo conjunto; sem ele, cada instância mantém as suas apenas em memória (tokens de outra instância
+// ou de antes de um reinício são recusados), por isso 'jwt.keys.require-dir' exige o diretório no perfil prod.
+// A recarga usa um ReentrantLock em vez de synchronized: a thread virtual que espera por ela ou faz I/O dentro dela não
+// prende a carrier thread.
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    public static final SignatureAlgorithm ALGORITHM = SignatureAlgorithm.ES256;
+
+    private static final String FILE_SUFFIX = ".key";
+    // Intervalo mínimo entre releituras do diretório provocadas por um 'kid' desconhecido
+    private static final long UNKNOWN_KID_RELOAD_MS = 5_000;
+
+    private final Path dir;
+    private final Duration rotation;
+    private final Duration prepublish;
+    private final Duration overlap;
+
+    // Estado imutável, trocado por inteiro a cada carga/rotação: leitura sem lock no caminho da requisição
+    private volatile State state = new State(null, Map.of(), Map.of("keys", List.of()));
+    private volatile long lastUnknownKidReload;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Autowired
+    public JwtKeyRing(@Value("${jwt.keys.dir:}") String dir,
+                      @Value("${jwt.keys.rotation:24h}") Duration rotation,
+                      @Value("${jwt.keys.prepublish:10m}") Duration prepublish,
+                      @Value("${jwt.keys.overlap:35m}") Duration overlap,
+                      @Value("${jwt.keys.require-dir:false}") boolean requireDir) {
+        this(sharedDir(dir, requireDir), rotation, prepublish, overlap);
+        JwtUtils.useKeyRing(this);
+    }
+
+    public JwtKeyRing(Path dir, Duration rotation, Duration prepublish, Duration overlap) {
+        this.dir = dir;
+        this.rotation = rotation;
+        this.prepublish = prepublish;
+        this.overlap = overlap;
+        refresh();
+    }
+
+    // Chaves apenas em memória, com rotação diária; usada fora do contexto Spring (ex.: benchmarks)
+    static JwtKeyRing inMemory() {
+        return new JwtKeyRing((Path) null, Duration.ofDays(1), Duration.ZERO, Duration.ofMinutes(35));
+    }
+
+    private static Path sharedDir(String dir, boolean requireDir) {
+        if (dir.isBlank()) {
+            if (requireDir) {
+                throw new IllegalStateException("jwt.keys.dir não configurado: com chaves só em memória as instâncias " +
+                        "não verificam os tokens umas das outras e todo reinício invalida os tokens emitidos");
+            }
+            return null;
+        }
+        return Path.of(dir);
+    }
+
+    public SigningKey signingKey() {
+        SigningKey current = state.current;
+        if (expired(current)) {
+            // O agendamento atrasou: a rotação é feita aqui mesmo, por uma única requisição; as que chegam enquanto
+            // isso esperam no lock e reutilizam o resultado em vez de repetir a recarga
+            refreshLock.lock();
+            try {
+                if (expired(state.current)) {
+                    refreshLocked();
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+            current = state.current;
+        }
+        return current;
+    }
+
+    private boolean expired(SigningKey key) {
+        return key == null || key.activeFrom.plus(rotation).isBefore(Instant.now());
+    }
+
+    // Chave pública para o 'kid' do token; null se o 'kid' não pertence ao conjunto
+    public PublicKey verificationKey(String kid) {
+        SigningKey key = state.byKid.get(kid);
+        if (key == null && dir != null && kid != null) {
+            // Outra instância pode ter acabado de criar a chave; o diretório é relido no máximo a cada 5s
+            long now = System.currentTimeMillis();
+            if (now - lastUnknownKidReload > UNKNOWN_KID_RELOAD_MS) {
+                lastUnknownKidReload = now;
+                refresh();
+                key = state.byKid.get(kid);
+            }
+        }
+        return key != null ? key.publicKey : null;
+    }
+
+    // Documento JWKS (RFC 7517) com as chaves publicadas, montado a cada troca de estado
+    public Map<String, Object> jwks() {
+        return state.jwks;
+    }
+
+    // Relê o diretório, cria a próxima chave quando a rotação se aproxima e descarta as chaves fora da janela
+    @Scheduled(fixedDelayString = "${jwt.keys.refresh-ms:60000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            refreshLocked();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void refreshLocked() {
+        Instant now = Instant.now();
+        List<SigningKey> keys = new ArrayList<>(dir != null ? load() : state.byKid.values());
+
+        SigningKey newest = keys.stream().max(Comparator.comparing(SigningKey::activeFrom)).orElse(null);
+        if (newest == null) {
+            keys.add(create(now));
+        } else if (!newest.activeFrom.isAfter(now) && !newest.activeFrom.plus(rotation).minus(prepublish).isAfter(now)) {
+            // Nenhuma chave pendente e a atual está a 'prepublish' do fim: publica a próxima
+            Instant activeFrom = newest.activeFrom.plus(rotation);
+            keys.add(create(activeFrom.isBefore(now) ? now : activeFrom));
+        }
+
+        keys.sort(Comparator.comparing(SigningKey::activeFrom));
+        SigningKey current = null;
+        Map<String, SigningKey> byKid = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            SigningKey key = keys.get(i);
+            SigningKey next = i + 1 < keys.size() ? keys.get(i + 1) : null;
+            if (next != null && !next.activeFrom.plus(overlap).isAfter(now)) {
+                // Substituída há mais de 'overlap': nenhum token assinado por ela ainda é válido
+                delete(key);
+                continue;
+            }
+            byKid.put(key.kid, key);
+            if (!key.activeFrom.isAfter(now)) {
+                current = key;
+            }
+        }
+        if (current == null) {
+            // Só há chaves pendentes (ex.: relógios desalinhados entre instâncias): assina com a mais antiga
+            current = keys.get(0);
+        }
+        state = new State(current, Map.copyOf(byKid), jwks(byKid.values()));
+    }
+
+    private SigningKey create(Instant activeFrom) {
+        KeyPair pair = Keys.keyPairFor(ALGORITHM);
+        SigningKey key = new SigningKey(kid(pair.getPublic()), activeFrom, pair.getPrivate(), pair.getPublic());
+        log.info("Nova chave JWT kid={} ativa a partir de {}", key.kid, activeFrom);
+        if (dir != null) {
+            store(key);
+        }
+        return key;
+    }
+
+    private List<SigningKey> load() {
+        List<SigningKey> keys = new ArrayList<>();
+        try {
+            Files.createDirectories(dir);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    try {
+                        keys.add(read(file));
+                    } catch (IOException | GeneralSecurityException | RuntimeException ex) {
+                        log.warn("Chave JWT ignorada {}: {}", file.getFileName(), ex.toString());
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            // Mantém as chaves já carregadas até o diretório voltar a responder
+            log.error("Falha ao ler o diretório de chaves JWT {}: {}", dir, ex.toString());
+            return new ArrayList<>(state.byKid.values());
+        }
+        return keys;
+    }
+
+    private static SigningKey read(Path file) throws IOException, GeneralSecurityException {
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        }
+        KeyFactory factory = KeyFactory.getInstance("EC");
+        PrivateKey privateKey = factory.generatePrivate(
+                new PKCS8EncodedKeySpec(Base64.getDecoder().decode(props.getProperty("private"))));
+        PublicKey publicKey = factory.generatePublic(
+                new X509EncodedKeySpec(Base64.getDecoder().decode(props.getProperty("public"))));
+        return new SigningKey(kid(publicKey), Instant.ofEpochMilli(Long.parseLong(props.getProperty("activeFrom"))),
+                privateKey, publicKey);
+    }
+
+    // Grava em um arquivo temporário e renomeia: outras instâncias nunca leem uma chave pela metade
+    private void store(SigningKey key) {
+        Properties props = new Properties();
+        props.setProperty("activeFrom", Long.toString(key.activeFrom.toEpochMilli()));
+        props.setProperty("private", Base64.getEncoder().encodeToString(key.privateKey.getEncoded()));
+        props.setProperty("public", Base64.getEncoder().encodeToString(key.publicKey.getEncoded()));
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, key.kid, ".tmp");
+            try {
+                Files.setPosixFilePermissions(tmp, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException ignored) {
+                // Sistema de arquivos sem permissões POSIX
+            }
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, null);
+            }
+            Files.move(tmp, dir.resolve(key.kid + FILE_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Falha ao gravar a chave JWT " + key.kid, ex);
+        }
+    }
+
+    private void delete(SigningKey key) {
+        log.info("Chave JWT kid={} descartada", key.kid);
+        if (dir != null) {
+            try {
+                Files.deleteIfExists(dir.resolve(key.kid + FILE_SUFFIX));
+            } catch (IOException ex) {
+                log.warn("Falha ao remover a chave JWT {}: {}", key.kid, ex.toString());
+            }
+        }
+    }
+
+    // 'kid' derivado da chave pública: o mesmo em todas as instâncias que leem o arquivo
+    private static String kid(PublicKey publicKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Map<String, Object> jwks(Collection<SigningKey> keys) {
+        List<Map<String, String>> jwks = new ArrayList<>();
+        for (SigningKey key : keys) {
+            ECPublicKey publicKey = (ECPublicKey) key.publicKey;
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("use", "sig");
+            jwk.put("alg", ALGORITHM.getValue());
+            jwk.put("kid", key.kid);
+            jwk.put("x", coordinate(publicKey.getW().getAffineX()));
+            jwk.put("y", coordinate(publicKey.getW().getAffineY()));
+            jwks.add(Collections.unmodifiableMap(jwk));
+        }
+        return Map.of("keys", List.copyOf(jwks));
+    }
+
+    // Coordenada da curva P-256 como 32 bytes sem sinal, em base64url
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    public record SigningKey(String kid, Instant activeFrom, PrivateKey privateKey, PublicKey publicKey) {
+    }
+
+    private record State(SigningKey current, Map<String, SigningKey> byKid, Map<String, Object> jwks) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.park_api.jwt;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,6 +10,13 @@ import lombok.Setter;
 @AllArgsConstructor
 @Getter
 @Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class JwtToken {
     private String token;
+    // Token opaco para POST api/v1/auth/refresh
+    private String refreshToken;
+
+    public JwtToken(String token) {
+        this.token = token;
+    }
 }
@@ -5,20 +5,30 @@ import org.springframework.security.core.userdetails.User;
 
 public class JwtUserDetails extends User {
 
-    private com.example.park_api.entities.User usuario;
+    private final Long id;
+    private final String role;
 
     public JwtUserDetails(com.example.park_api.entities.User usuario) {
         // Chama o construtor da classe `User` do Spring Security, passando o username, password,
         // e as roles do usuário como uma lista de autoridades/roles
         super(usuario.getUsername(), usuario.getPassword(), AuthorityUtils.createAuthorityList(usuario.getRole().name()));
-        this.usuario = usuario;
+        this.id = usuario.getId();
+        this.role = usuario.getRole().name();
+    }
+
+    // Monta o principal apenas com os dados presentes nos claims do token, sem consultar o banco.
+    // A senha não é conhecida neste caso, por isso fica vazia
+    public JwtUserDetails(Long id, String username, String role) {
+        super(username, "", AuthorityUtils.createAuthorityList(role));
+        this.id = id;
+        this.role = role;
     }
 
     public Long getId() {
-        return this.usuario.getId();
+        return this.id;
     }
 
     public String getRole() {
-        return this.usuario.getRole().name();
+        return this.role;
     }
 }
@@ -1,18 +1,41 @@
 package com.example.park_api.jwt;
 
 import com.example.park_api.entities.User;
+import com.example.park_api.entities.UserChangedEvent;
 import com.example.park_api.services.UserService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RequiredArgsConstructor
 @Service
-public class JwtUserDetailsService implements UserDetailsService {
+public class JwtUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserService userService;
 
+    // CLAIMS: o principal é montado a partir do token, sem acesso ao banco.
+    // DATABASE: o principal é carregado do banco, passando pelo cache de curta duração abaixo.
+    @Value("${jwt.principal.mode:CLAIMS}")
+    private PrincipalMode principalMode;
+
+    // Tempo de vida do cache de usuários (0 desabilita o cache)
+    @Value("${jwt.user-details-cache.ttl:30s}")
+    private Duration userCacheTtl;
+
+    @Value("${jwt.user-details-cache.max-size:10000}")
+    private int userCacheMaxSize;
+
+    private final Map<String, CachedUser> userCache = new ConcurrentHashMap<>();
+
     // Implementa o metodo `loadUserByUsername`, obrigatório pela interface `UserDetailsService`
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -21,9 +44,61 @@ public class JwtUserDetailsService implements UserDetailsService {
         return new JwtUserDetails(usuario);
     }
 
-    public JwtToken getTokenAuthenticated(String username) {
-        User.Role role = userService.buscarRolePorUsername(username);
+    // Chamado pelo AuthenticationManager após um login bem-sucedido cujo hash usa um custo BCrypt menor que o configurado
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userService.atualizarHashSenha(user.getUsername(), newPassword);
+        return loadUserByUsername(user.getUsername());
+    }
+
+    // Monta o principal de uma requisição autenticada a partir dos claims do token já validado
+    public JwtUserDetails loadUserByClaims(Claims claims) {
+        Long id = claims.get(JwtUtils.CLAIM_ID, Long.class);
+        String role = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+        // Tokens emitidos antes do claim 'id' existir continuam sendo resolvidos pelo banco
+        if (principalMode == PrincipalMode.CLAIMS && id != null && role != null) {
+            return new JwtUserDetails(id, claims.getSubject(), "ROLE_" + role);
+        }
+        return loadCachedUser(claims.getSubject());
+    }
+
+    // Usa o principal já carregado pelo AuthenticationManager: o login não faz uma segunda consulta ao usuário
+    public JwtToken getTokenAuthenticated(JwtUserDetails userDetails) {
         // Cria e retorna um token JWT, removendo o prefixo "ROLE_" da role do usuário
-        return JwtUtils.createToken(username, role.name().substring("ROLE_".length()));
+        return JwtUtils.createToken(userDetails.getId(), userDetails.getUsername(),
+                userDetails.getRole().substring("ROLE_".length()));
+    }
+
+    // Remove o usuário do cache após o commit de qualquer alteração (senha, role, exclusão)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userCache.remove(event.username());
+    }
+
+    private JwtUserDetails loadCachedUser(String username) {
+        if (userCacheTtl.isZero()) {
+            return (JwtUserDetails) loadUserByUsername(username);
+        }
+        long now = System.currentTimeMillis();
+        CachedUser cached = userCache.get(username);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.details;
+        }
+        JwtUserDetails details = (JwtUserDetails) loadUserByUsername(username);
+        if (userCache.size() >= userCacheMaxSize) {
+            userCache.values().removeIf(c -> c.expiresAt <= now);
+            if (userCache.size() >= userCacheMaxSize) {
+                userCache.clear();
+            }
+        }
+        userCache.put(username, new CachedUser(details, now + userCacheTtl.toMillis()));
+        return details;
+    }
+
+    public enum PrincipalMode {
+        CLAIMS, DATABASE
+    }
+
+    private record CachedUser(JwtUserDetails details, long expiresAt) {
     }
 }
@@ -1,38 +1,69 @@
 package com.example.park_api.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
 import java.security.Key;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Base64;
 import java.util.Date;
 
 @Slf4j // Ativa o logging para a classe
 public class JwtUtils {
 
-    // Constantes para o padrão de autorização e a chave secreta do JWT
+    // Constantes para o padrão de autorização do JWT
     public static final String JWT_BEARER = "Bearer ";
     public static final String JWT_AUTHORIZATION = "Authorization";
-    public static final String SECRET_KEY = "0123456789-0123456789-0123456789";
+
+    // Nomes dos claims adicionados ao token
+    public static final String CLAIM_ID = "id";
+    public static final String CLAIM_ROLE = "role";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
 
     // Tempo de expiração do token em dias, horas e minutos
     public static final long EXPIRE_DAYS = 0;
     public static final long EXPIRE_HOURS = 0;
     public static final long EXPIRE_MINUTES = 30;
 
+    // Chaves ES256 de assinatura/verificação. Substituídas pelo bean JwtKeyRing na inicialização da aplicação;
+    // fora do contexto Spring (ex.: benchmarks) ficam apenas em memória
+    private static volatile JwtKeyRing keyRing = JwtKeyRing.inMemory();
+
+    // O parser é imutável e thread-safe, então é criado uma única vez; a chave de verificação é escolhida pelo 'kid'
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            // Aceita apenas ES256: impede que um token HS256 seja verificado usando a chave pública como segredo
+            if (!JwtKeyRing.ALGORITHM.getValue().equals(header.getAlgorithm())) {
+                throw new UnsupportedJwtException("Algoritmo não aceito: " + header.getAlgorithm());
+            }
+            PublicKey key = keyRing.verificationKey(header.getKeyId());
+            if (key == null) {
+                throw new SignatureException("Chave 'kid' desconhecida: " + header.getKeyId());
+            }
+            return key;
+        }
+    }).build();
+
     // Construtor privado para impedir a criação de instâncias da classe
     private JwtUtils(){
     }
 
-    // Metodo que gera a chave para assinatura do token JWT usando o algoritmo HMAC e a chave secreta
-    private static Key generateKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+    static void useKeyRing(JwtKeyRing ring) {
+        keyRing = ring;
     }
 
     // Metodo que converte a data inicial em uma data de expiração baseada no tempo configurado
@@ -42,32 +73,53 @@ public class JwtUtils {
         return Date.from(end.atZone(ZoneId.systemDefault()).toInstant());
     }
 
-    // Metodo que cria um token JWT com base no username e role do usuário
-    public static JwtToken createToken(String username, String role) {
+    // Validade máxima de um token emitido agora
+    public static Duration tokenTtl() {
+        return Duration.ofDays(EXPIRE_DAYS).plusHours(EXPIRE_HOURS).plusMinutes(EXPIRE_MINUTES);
+    }
+
+    // Momento de emissão em milissegundos. O 'iat' é gravado com fração de segundo (NumericDate permite valores
+    // não inteiros), o que permite revogar exatamente os tokens emitidos antes de uma troca de senha
+    public static long getIssuedAtMillis(Claims claims) {
+        Object iat = claims.get(Claims.ISSUED_AT);
+        return iat instanceof Number number ? Math.round(number.doubleValue() * 1000) : 0L;
+    }
+
+    // Metodo que cria um token JWT com base no id, username e role do usuário
+    public static JwtToken createToken(Long id, String username, String role) {
         Date issuedAt = new Date(); // Data de emissão do token
         Date limit = toExpireDate(issuedAt); // Data de expiração calculada
+        JwtKeyRing.SigningKey key = keyRing.signingKey(); // Chave ativa no momento da emissão
 
         // Construção do token JWT
         String token = Jwts.builder()
                 .setHeaderParam("typ", "JWT") // Define o tipo de token como JWT
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid()) // Identifica a chave para quem verifica (JWKS)
                 .setSubject(username) // Define o username como o sujeito do token
-                .setIssuedAt(issuedAt) // Define a data de emissão
+                .setId(newTokenId()) // Identificador único do token (jti), usado na revogação
+                .claim(Claims.ISSUED_AT, BigDecimal.valueOf(issuedAt.getTime(), 3)) // Define a data de emissão, com milissegundos
                 .setExpiration(limit) // Define a data de expiração
-                .signWith(generateKey(), SignatureAlgorithm.HS256) // Assina o token com a chave gerada
-                .claim("role", role) // Adiciona a role como um claim
+                .signWith(key.privateKey(), JwtKeyRing.ALGORITHM) // Assina o token com a chave privada ES256
+                .claim(CLAIM_ID, id) // Adiciona o id do usuário como um claim
+                .claim(CLAIM_ROLE, role) // Adiciona a role como um claim
                 .compact(); // Gera o token como uma string compacta
 
         return new JwtToken(token); // Retorna o token JWT encapsulado em uma classe JwtToken
     }
 
-    // Metodo que extrai os claims do token JWT (informações como sujeito, expiração, etc.)
-    private static Claims getClaimsFromToken(String token) {
+    // 128 bits aleatórios em base64url (22 caracteres)
+    private static String newTokenId() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Metodo que valida o token JWT e extrai seus claims (informações como sujeito, expiração, etc.)
+    public static Claims getClaimsFromToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(generateKey()).build() // Usa a chave gerada para validar o token
-                    .parseClaimsJws(refactorToken(token)).getBody(); // Extrai os claims do token
+            return PARSER.parseClaimsJws(refactorToken(token)).getBody(); // Valida a assinatura e extrai os claims do token
         } catch (JwtException ex) {
-            log.error(String.format("Token invalido %s", ex.getMessage())); // Log de erro em caso de token inválido
+            log.debug("Token invalido: {}", ex.getMessage()); // O filtro de autorização registra o evento com amostragem
         }
         return null; // Retorna null se o token for inválido
     }
@@ -80,12 +132,10 @@ public class JwtUtils {
     // Metodo que verifica se o token JWT é válido
     public static boolean isTokenValid(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(generateKey()).build() // Usa a chave para validar o token
-                    .parseClaimsJws(refactorToken(token)); // Analisa o token JWT e verifica sua validade
+            PARSER.parseClaimsJws(refactorToken(token)); // Analisa o token JWT e verifica sua validade
             return true; // Retorna true se o token for válido
         } catch (JwtException ex) {
-            log.error(String.format("Token invalido %s", ex.getMessage())); // Log de erro em caso de token inválido
+            log.debug("Token invalido: {}", ex.getMessage()); // O filtro de autorização registra o evento com amostragem
         }
         return false; // Retorna false se o token for inválido
     }
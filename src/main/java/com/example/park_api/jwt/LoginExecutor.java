@@ -0,0 +1,64 @@
+package com.example.park_api.jwt;
+
+import com.example.park_api.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Pool dedicado às autenticações (verificação BCrypt), separado das threads do Tomcat.
+// A fila é limitada: com o pool saturado o login é recusado na hora (503) em vez de segurar as demais requisições.
+@Component
+public class LoginExecutor implements DisposableBean {
+
+    private static final String METRIC_NAME = "login.hashing";
+
+    private final ExecutorService executor;
+    private final Counter rejected;
+
+    public LoginExecutor(MeterRegistry registry,
+                         @Value("${security.login.pool-size:0}") int poolSize,
+                         @Value("${security.login.queue-capacity:200}") int queueCapacity) {
+        // Sem valor configurado, uma thread por núcleo: o BCrypt é puramente CPU
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new LoginThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        // Publica executor.queued, executor.active, executor.completed etc. e os tempos de execução (executor)
+        // e de espera na fila (executor.idle) com a tag name=login.hashing
+        this.executor = ExecutorServiceMetrics.monitor(registry, pool, METRIC_NAME);
+        this.rejected = Counter.builder(METRIC_NAME + ".rejected")
+                .description("Autenticações recusadas por saturação do pool")
+                .register(registry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Serviço de autenticação sobrecarregado, tente novamente em instantes");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static final class LoginThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "login-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
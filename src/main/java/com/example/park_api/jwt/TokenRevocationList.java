@@ -0,0 +1,194 @@
+package com.example.park_api.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lista em memória dos tokens revogados, consultada a cada requisição autenticada.
+// Dois tipos de revogação: um token específico (jti, ex.: logout) e todos os tokens de um usuário emitidos antes de um
+// instante (ex.: troca de senha). Cada tipo tem um filtro de Bloom na frente do mapa exato: no caso comum (token não
+// revogado) a verificação termina no filtro, sem acessar o mapa e sem alocar objetos.
+// Entradas expiram junto com o último token que podem afetar e são removidas por gc(), que também reconstrói os filtros.
+@Component
+public class TokenRevocationList implements MeterBinder {
+
+    // jti -> expiração do token (ms)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // id do usuário -> instante de corte (ms); tokens emitidos antes dele são recusados
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+    // Expiração da entrada de cada usuário (ms)
+    private final Map<Long, Long> revokedUsersExpiry = new ConcurrentHashMap<>();
+
+    private final int expectedEntries;
+    private volatile BloomFilter tokenFilter;
+    private volatile BloomFilter userFilter;
+
+    private final LongAdder falsePositives = new LongAdder();
+
+    public TokenRevocationList(@Value("${jwt.revocation.expected-entries:100000}") int expectedEntries) {
+        this.expectedEntries = expectedEntries;
+        this.tokenFilter = new BloomFilter(expectedEntries);
+        this.userFilter = new BloomFilter(expectedEntries);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && tokenFilter.mightContain(jti)) {
+            if (revokedTokens.containsKey(jti)) {
+                return true;
+            }
+            falsePositives.increment();
+        }
+        // O claim já vem como Integer/Long do parser; longValue() não aloca
+        if (claims.get(JwtUtils.CLAIM_ID) instanceof Number id && userFilter.mightContain(id.longValue())) {
+            Long cutoff = revokedUsers.get(id.longValue());
+            if (cutoff != null) {
+                return JwtUtils.getIssuedAtMillis(claims) < cutoff;
+            }
+            falsePositives.increment();
+        }
+        return false;
+    }
+
+    public void revokeToken(String jti, long expiresAt) {
+        if (expiresAt > System.currentTimeMillis()) {
+            revokedTokens.put(jti, expiresAt);
+            tokenFilter.add(jti);
+        }
+    }
+
+    public void revokeUser(long userId, long revokedBefore, long expiresAt) {
+        if (expiresAt > System.currentTimeMillis()) {
+            revokedUsers.merge(userId, revokedBefore, Math::max);
+            revokedUsersExpiry.merge(userId, expiresAt, Math::max);
+            userFilter.add(userId);
+        }
+    }
+
+    // Remove as entradas expiradas e reconstrói os filtros só com as restantes (um filtro de Bloom não remove itens).
+    // Um jti revogado entre a cópia e a troca do filtro é adicionado de novo abaixo, por isso nada é perdido
+    public synchronized void gc() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsersExpiry.entrySet().removeIf(e -> {
+            if (e.getValue() <= now) {
+                revokedUsers.remove(e.getKey());
+                return true;
+            }
+            return false;
+        });
+
+        BloomFilter tokens = new BloomFilter(Math.max(expectedEntries, revokedTokens.size()));
+        revokedTokens.keySet().forEach(tokens::add);
+        BloomFilter users = new BloomFilter(Math.max(expectedEntries, revokedUsers.size()));
+        revokedUsers.keySet().forEach(users::add);
+        tokenFilter = tokens;
+        userFilter = users;
+        revokedTokens.keySet().forEach(tokens::add);
+        revokedUsers.keySet().forEach(users::add);
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jwt.revocation.size", this, TokenRevocationList::size)
+                .description("Tokens e usuários revogados ainda dentro da validade")
+                .register(registry);
+        FunctionCounter.builder("jwt.revocation.bloom.false.positives", this, TokenRevocationList::getFalsePositives)
+                .description("Consultas em que o filtro de Bloom indicou revogação inexistente")
+                .register(registry);
+    }
+
+    // Filtro de Bloom com ~1% de falsos positivos na capacidade informada (~1,2 MB para 1 milhão de entradas).
+    // Bits em AtomicLongArray: inserções concorrentes sem lock e leituras sem alocação
+    static final class BloomFilter {
+
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+
+        BloomFilter(int expectedEntries) {
+            // m = n * 9,6 bits para p = 1% com k = 7
+            long m = Math.max(64, (long) (expectedEntries * 9.6));
+            this.bits = new AtomicLongArray((int) ((m + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+        }
+
+        void add(String value) {
+            setBits(hash(value));
+        }
+
+        void add(long value) {
+            setBits(mix(value));
+        }
+
+        boolean mightContain(String value) {
+            return testBits(hash(value));
+        }
+
+        boolean mightContain(long value) {
+            return testBits(mix(value));
+        }
+
+        private void setBits(long hash) {
+            long h2 = mix(hash) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(hash + i * h2, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(index);
+                } while ((current & mask) == 0 && !bits.compareAndSet(index, current, current | mask));
+            }
+        }
+
+        private boolean testBits(long hash) {
+            long h2 = mix(hash) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(hash + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a sobre os caracteres, sem criar o array de bytes da String
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        // Finalizador do MurmurHash3 (fmix64)
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
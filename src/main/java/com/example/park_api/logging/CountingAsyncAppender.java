@@ -0,0 +1,40 @@
+package com.example.park_api.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// AsyncAppender que nunca bloqueia a thread da requisição e conta os eventos descartados.
+// Eventos são descartados quando a fila enche (neverBlock) ou, abaixo do limite de descarte, quando são INFO ou inferiores.
+// O contador é estático porque o appender é criado pelo Logback antes do contexto Spring (ver LoggingMetrics).
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    public CountingAsyncAppender() {
+        setNeverBlock(true);
+    }
+
+    public static long droppedEvents() {
+        return DROPPED.sum();
+    }
+
+    @Override
+    protected void append(ILoggingEvent eventObject) {
+        if (getRemainingCapacity() == 0) {
+            DROPPED.increment();
+            return;
+        }
+        super.append(eventObject);
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            DROPPED.increment();
+        }
+        return discardable;
+    }
+}
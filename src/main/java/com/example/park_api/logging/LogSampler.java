@@ -0,0 +1,38 @@
+package com.example.park_api.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Limita a quantidade de linhas de log de um mesmo evento por janela de tempo.
+// As ocorrências descartadas são contadas e informadas na próxima linha registrada (campo suppressed=),
+// assim um ataque com milhares de tokens inválidos gera poucas linhas, sem perder a dimensão do volume.
+public class LogSampler {
+
+    private final int permitsPerWindow;
+    private final long windowNanos;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger used = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogSampler(int permitsPerWindow, long window, TimeUnit unit) {
+        this.permitsPerWindow = permitsPerWindow;
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    // Retorna -1 quando a ocorrência deve ser descartada; caso contrário, quantas foram descartadas desde a última registrada
+    public long tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= permitsPerWindow) {
+            return suppressed.sumThenReset();
+        }
+        suppressed.increment();
+        return -1;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.park_api.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("logback.events.dropped", this, m -> CountingAsyncAppender.droppedEvents())
+                .description("Eventos de log descartados pelo appender assíncrono (fila cheia ou abaixo do limite de descarte)")
+                .register(registry);
+    }
+}
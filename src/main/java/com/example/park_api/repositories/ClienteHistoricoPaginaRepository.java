@@ -0,0 +1,11 @@
+package com.example.park_api.repositories;
+
+import com.example.park_api.entities.ClienteHistoricoPagina;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ClienteHistoricoPaginaRepository extends JpaRepository<ClienteHistoricoPagina, Long> {
+
+    Optional<ClienteHistoricoPagina> findByCpfAndNumero(String cpf, int numero);
+}
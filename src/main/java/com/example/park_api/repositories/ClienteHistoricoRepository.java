@@ -0,0 +1,7 @@
+package com.example.park_api.repositories;
+
+import com.example.park_api.entities.ClienteHistorico;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ClienteHistoricoRepository extends JpaRepository<ClienteHistorico, String> {
+}
@@ -2,15 +2,52 @@ package com.example.park_api.repositories;
 
 import com.example.park_api.entities.Cliente;
 import com.example.park_api.repositories.projection.ClienteProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     @Query("select c from Cliente c")
     Page<ClienteProjection> findAllPageable(Pageable pageable);
 
+    // Resultado guardado no cache de consultas; é invalidado a cada escrita na tabela customers feita pelo Hibernate
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Cliente findByUsuarioId(Long id);
-}
 
+    // Mesma listagem paginada por offset, porém sem o COUNT de totalElements
+    @Query("select c.id as id, c.nome as nome, c.cpf as cpf from Cliente c")
+    Slice<ClienteProjection> findAllSliced(Pageable pageable);
+
+    // Paginação por keyset sobre o índice (nome, id): o retorno em Slice busca size+1 linhas e não executa COUNT
+    @Query("select c.id as id, c.nome as nome, c.cpf as cpf from Cliente c order by c.nome, c.id")
+    Slice<ClienteProjection> findFirstSlice(Pageable pageable);
+
+    @Query("select c.id as id, c.nome as nome, c.cpf as cpf from Cliente c " +
+            "where c.nome >= :nome and (c.nome > :nome or c.id > :id) order by c.nome, c.id")
+    Slice<ClienteProjection> findSliceAfter(String nome, Long id, Pageable pageable);
+
+    // Cursor somente leitura e em ordem de id para exportação; com useCursorFetch (perfil prod) o fetch size evita
+    // carregar todas as linhas no driver
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c.id as id, c.nome as nome, c.cpf as cpf from Cliente c order by c.id")
+    Stream<ClienteProjection> streamAll();
+
+    // Consultas em conjunto usadas na importação em lote, uma por bloco de linhas em vez de uma por cliente
+    @Query("select c.cpf from Cliente c where c.cpf in :cpfs")
+    List<String> findCpfsIn(Collection<String> cpfs);
+
+    @Query("select c.usuario.id from Cliente c where c.usuario.id in :ids")
+    List<Long> findUsuarioIdsIn(Collection<Long> ids);
+}
@@ -0,0 +1,39 @@
+package com.example.park_api.repositories;
+
+import com.example.park_api.entities.EstacionamentoEvento;
+import com.example.park_api.repositories.projection.SaidaProjection;
+import com.example.park_api.repositories.projection.VisitasProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface EstacionamentoEventoRepository extends JpaRepository<EstacionamentoEvento, Long> {
+
+    // Entradas ainda sem saída, carregadas na inicialização
+    @Query("select e from EstacionamentoEvento e where e.tipo = com.example.park_api.entities.EstacionamentoEvento.Tipo.ENTRADA " +
+            "and not exists (select s.id from EstacionamentoEvento s where s.recibo = e.recibo " +
+            "and s.tipo = com.example.park_api.entities.EstacionamentoEvento.Tipo.SAIDA)")
+    List<EstacionamentoEvento> findEntradasAbertas();
+
+    @Query("select e from EstacionamentoEvento e where e.recibo = :recibo " +
+            "and e.tipo = com.example.park_api.entities.EstacionamentoEvento.Tipo.ENTRADA " +
+            "and not exists (select s.id from EstacionamentoEvento s where s.recibo = :recibo " +
+            "and s.tipo = com.example.park_api.entities.EstacionamentoEvento.Tipo.SAIDA)")
+    Optional<EstacionamentoEvento> findEntradaAberta(String recibo);
+
+    // Saídas do período, na ordem em que aconteceram
+    @Query("select e.cpf as cpf, e.dataEntrada as dataEntrada, e.dataHora as dataHora, e.valor as valor " +
+            "from EstacionamentoEvento e where e.tipo = com.example.park_api.entities.EstacionamentoEvento.Tipo.SAIDA " +
+            "and e.dataHora >= :inicio and e.dataHora < :fim order by e.dataHora, e.id")
+    List<SaidaProjection> findSaidasEntre(LocalDateTime inicio, LocalDateTime fim);
+
+    // Visitas encerradas antes do período, por cliente
+    @Query("select e.cpf as cpf, count(e) as visitas from EstacionamentoEvento e " +
+            "where e.tipo = com.example.park_api.entities.EstacionamentoEvento.Tipo.SAIDA " +
+            "and e.dataHora < :inicio and e.cpf in :cpfs group by e.cpf")
+    List<VisitasProjection> contarVisitasAntes(LocalDateTime inicio, Collection<String> cpfs);
+}
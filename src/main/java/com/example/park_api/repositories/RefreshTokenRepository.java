@@ -0,0 +1,37 @@
+package com.example.park_api.repositories;
+
+import com.example.park_api.entities.RefreshToken;
+import com.example.park_api.repositories.projection.RefreshTokenProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Uma consulta pelo índice único do hash traz a sessão e os dados do usuário necessários para o novo access token
+    @Query("select r.id as id, r.expiresAt as expiresAt, r.sessionExpiresAt as sessionExpiresAt, " +
+            "u.id as usuarioId, u.username as username, u.role as role " +
+            "from RefreshToken r join r.usuario u where r.tokenHash = :tokenHash")
+    Optional<RefreshTokenProjection> findByTokenHash(byte[] tokenHash);
+
+    // Só substitui o hash se ele ainda for o apresentado: de duas renovações simultâneas com o mesmo token, apenas uma vence
+    @Modifying
+    @Query("update RefreshToken r set r.tokenHash = :novoHash, r.expiresAt = :expiresAt " +
+            "where r.id = :id and r.tokenHash = :hashAtual")
+    int rotate(Long id, byte[] hashAtual, byte[] novoHash, LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.tokenHash = :tokenHash and r.usuario.id = :usuarioId")
+    int deleteByTokenHashAndUsuarioId(byte[] tokenHash, Long usuarioId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.usuario.id = :usuarioId")
+    int deleteByUsuarioId(Long usuarioId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt < :agora")
+    int deleteExpired(LocalDateTime agora);
+}
@@ -0,0 +1,18 @@
+package com.example.park_api.repositories;
+
+import com.example.park_api.entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    @Query("select r from RevokedToken r where r.criadoEm >= :desde and r.expiresAt > :agora")
+    List<RevokedToken> findCriadosDesde(long desde, long agora);
+
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt <= :agora")
+    int deleteExpired(long agora);
+}
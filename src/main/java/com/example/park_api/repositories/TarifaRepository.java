@@ -0,0 +1,14 @@
+package com.example.park_api.repositories;
+
+import com.example.park_api.entities.Tarifa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface TarifaRepository extends JpaRepository<Tarifa, Long> {
+
+    // Id da tarifa vigente: a recarga periódica só carrega as regras quando ele muda
+    @Query("select max(t.id) from Tarifa t")
+    Optional<Long> findIdVigente();
+}
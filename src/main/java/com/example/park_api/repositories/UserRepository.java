@@ -1,15 +1,36 @@
 package com.example.park_api.repositories;
 
 import com.example.park_api.entities.User;
+import com.example.park_api.repositories.projection.UserProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
-    @Query("select u.role from User u where u.username like :username")
-    User.Role findRoleByUsername(String username);
+    // Cursor somente leitura e em ordem de id para exportação; com useCursorFetch (perfil prod) o fetch size evita
+    // carregar todas as linhas no driver
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.id as id, u.username as username, u.role as role from User u order by u.id")
+    Stream<UserProjection> streamAll();
+
+    @Query("select u.id as id, u.username as username, u.role as role from User u where u.username in :usernames")
+    List<UserProjection> findProjectionsByUsernameIn(Collection<String> usernames);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePasswordByUsername(String username, String password);
 }
@@ -0,0 +1,31 @@
+package com.example.park_api.repositories;
+
+import com.example.park_api.entities.Vaga;
+import com.example.park_api.repositories.projection.VagaProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface VagaRepository extends JpaRepository<Vaga, Long> {
+
+    // Estado de todas as vagas, usado para (re)construir o índice de vagas livres
+    @Query("select v.id as id, v.codigo as codigo, v.zona as zona, v.status as status, v.versao as versao " +
+            "from Vaga v order by v.zona, v.id")
+    List<VagaProjection> findAllEstados();
+
+    @Query("select v.id as id, v.codigo as codigo, v.zona as zona, v.status as status, v.versao as versao " +
+            "from Vaga v where v.id = :id")
+    Optional<VagaProjection> findEstadoById(Long id);
+
+    // Troca de status com versionamento otimista: só altera se a vaga ainda estiver na versão e no status vistos pelo
+    // índice. Cada chamada é uma transação curta de um único UPDATE, sem SELECT ... FOR UPDATE
+    @Transactional
+    @Modifying
+    @Query("update Vaga v set v.status = :novo, v.cpfOcupante = :cpfOcupante, v.versao = v.versao + 1 " +
+            "where v.id = :id and v.versao = :versao and v.status = :atual")
+    int alterarStatus(Long id, Long versao, Vaga.Status atual, Vaga.Status novo, String cpfOcupante);
+}
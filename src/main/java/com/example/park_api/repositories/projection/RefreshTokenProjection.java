@@ -0,0 +1,15 @@
+package com.example.park_api.repositories.projection;
+
+import com.example.park_api.entities.User;
+
+import java.time.LocalDateTime;
+
+public interface RefreshTokenProjection {
+
+    Long getId();
+    LocalDateTime getExpiresAt();
+    LocalDateTime getSessionExpiresAt();
+    Long getUsuarioId();
+    String getUsername();
+    User.Role getRole();
+}
@@ -0,0 +1,13 @@
+package com.example.park_api.repositories.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Saída encerrada, com o necessário para recalcular o seu valor
+public interface SaidaProjection {
+
+    String getCpf();
+    LocalDateTime getDataEntrada();
+    LocalDateTime getDataHora();
+    BigDecimal getValor();
+}
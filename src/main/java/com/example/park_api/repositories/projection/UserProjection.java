@@ -0,0 +1,10 @@
+package com.example.park_api.repositories.projection;
+
+import com.example.park_api.entities.User;
+
+public interface UserProjection {
+
+    Long getId();
+    String getUsername();
+    User.Role getRole();
+}
@@ -0,0 +1,12 @@
+package com.example.park_api.repositories.projection;
+
+import com.example.park_api.entities.Vaga;
+
+public interface VagaProjection {
+
+    Long getId();
+    String getCodigo();
+    String getZona();
+    Vaga.Status getStatus();
+    Long getVersao();
+}
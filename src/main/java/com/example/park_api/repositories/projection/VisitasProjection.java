@@ -0,0 +1,7 @@
+package com.example.park_api.repositories.projection;
+
+public interface VisitasProjection {
+
+    String getCpf();
+    Long getVisitas();
+}
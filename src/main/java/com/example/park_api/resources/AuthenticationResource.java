@@ -1,29 +1,46 @@
 package com.example.park_api.resources;
 
+import com.example.park_api.jwt.JwtClaimsCache;
 import com.example.park_api.jwt.JwtToken;
+import com.example.park_api.jwt.JwtUserDetails;
 import com.example.park_api.jwt.JwtUserDetailsService;
+import com.example.park_api.jwt.JwtUtils;
+import com.example.park_api.jwt.LoginExecutor;
+import com.example.park_api.logging.LogSampler;
+import com.example.park_api.resources.dto.RefreshTokenDTO;
 import com.example.park_api.resources.dto.UserLoginDTO;
 import com.example.park_api.resources.dto.UserResponseDTO;
 import com.example.park_api.resources.exception.ErrorMessage;
+import com.example.park_api.services.RefreshTokenService;
+import com.example.park_api.services.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 @Tag(name = "Autenticação", description = "Recurso para proceder com a autenticação na API")
 @Slf4j
 @RequiredArgsConstructor
@@ -32,6 +49,13 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthenticationResource {
     private final JwtUserDetailsService detailsService;
     private final AuthenticationManager authenticationManager;
+    private final LoginExecutor loginExecutor;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final JwtClaimsCache claimsCache;
+
+    // No máximo 10 linhas de credenciais inválidas a cada 10s (tentativas em massa não inundam o log)
+    private final LogSampler badCredentialsLog = new LogSampler(10, 10, TimeUnit.SECONDS);
 
     @Operation(summary = "Autenticar na API", description = "Recurso de autenticação na API",
             responses = {
@@ -40,31 +64,84 @@ public class AuthenticationResource {
                     @ApiResponse(responseCode = "400", description = "Credenciais inválidas",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
                     @ApiResponse(responseCode = "422", description = "Campo(s) Inválido(s)",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "503", description = "Serviço de autenticação sobrecarregado",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
             })
     // Mapeia a requisição POST para o endpoint "/auth" para realizar a autenticação
     @PostMapping("/auth")
-    public ResponseEntity<?> autenticar(@RequestBody @Valid UserLoginDTO userLoginDTO, HttpServletRequest request) {
-        log.info("Processo de autenticação pelo login {}", userLoginDTO.getUsername());
-        try {
-            // Cria um token de autenticação a partir do username e senha do DTO
-            UsernamePasswordAuthenticationToken authenticationToken =
-                    new UsernamePasswordAuthenticationToken(userLoginDTO.getUsername(), userLoginDTO.getPassword());
+    public CompletableFuture<ResponseEntity<?>> autenticar(@RequestBody @Valid UserLoginDTO userLoginDTO, HttpServletRequest request) {
+        log.debug("Processo de autenticação pelo login {}", userLoginDTO.getUsername());
+        // Cria um token de autenticação a partir do username e senha do DTO
+        UsernamePasswordAuthenticationToken authenticationToken =
+                new UsernamePasswordAuthenticationToken(userLoginDTO.getUsername(), userLoginDTO.getPassword());
+
+        // A verificação BCrypt roda no pool de login; a thread do Tomcat é liberada até a resposta ficar pronta
+        return loginExecutor.submit(() -> {
+            try {
+                // Realiza a autenticação utilizando o AuthenticationManager
+                Authentication authentication = authenticationManager.authenticate(authenticationToken);
+                JwtUserDetails userDetails = (JwtUserDetails) authentication.getPrincipal();
 
-            // Realiza a autenticação utilizando o AuthenticationManager
-            authenticationManager.authenticate(authenticationToken);
+                // Gera o token JWT (id, username e role) a partir do usuário carregado na autenticação
+                JwtToken token = detailsService.getTokenAuthenticated(userDetails);
+                // Abre a sessão de refresh: as próximas renovações não passam pelo BCrypt
+                token.setRefreshToken(refreshTokenService.criar(userDetails.getId()));
 
-            // Gera o token JWT para o usuário autenticado com base no username
-            JwtToken token = detailsService.getTokenAuthenticated(userLoginDTO.getUsername());
+                // Retorna o token em caso de sucesso
+                return ResponseEntity.ok(token);
+            } catch (AuthenticationException ex) {
+                long suppressed = badCredentialsLog.tryAcquire();
+                if (suppressed >= 0) {
+                    log.warn("event=bad_credentials username={} remote={} suppressed={}",
+                            userLoginDTO.getUsername(), request.getRemoteAddr(), suppressed);
+                }
+            }
+            // Retorna uma resposta de erro caso a autenticação falhe, com uma mensagem personalizada
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, "Credenciais Inválidas"));
+        });
+    }
+
+    @Operation(summary = "Renovar o token de acesso",
+            description = "Troca um refresh token válido por um novo bearer token e um novo refresh token. " +
+                    "O refresh token enviado deixa de valer (rotação).",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Novo bearer token e novo refresh token",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = JwtToken.class))),
+                    @ApiResponse(responseCode = "401", description = "Refresh token inválido, já utilizado ou expirado",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "422", description = "Campo(s) Inválido(s)",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping("/auth/refresh")
+    public ResponseEntity<JwtToken> renovar(@RequestBody @Valid RefreshTokenDTO dto) {
+        return ResponseEntity.ok(refreshTokenService.renovar(dto.getRefreshToken()));
+    }
 
-            // Retorna o token em caso de sucesso
-            return ResponseEntity.ok(token);
-        } catch (AuthenticationException ex) {
-            log.warn("Bad Credentials from username '{}'", userLoginDTO.getUsername());
+    @Operation(summary = "Encerrar a sessão",
+            description = "Revoga o bearer token usado na requisição e, se informado, o refresh token da sessão. " +
+                    "Requisição exige uso de um bearer token.",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Sessão encerrada"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping("/auth/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                       @AuthenticationPrincipal JwtUserDetails userDetails,
+                                       @RequestBody(required = false) RefreshTokenDTO dto) {
+        // O filtro já validou o token nesta requisição, então os claims vêm do cache
+        Claims claims = claimsCache.resolve(authorization, JwtUtils::getClaimsFromToken);
+        if (claims != null && claims.getId() != null) {
+            tokenRevocationService.revogarToken(claims.getId(), claims.getExpiration().getTime());
+        }
+        if (dto != null && dto.getRefreshToken() != null) {
+            // Só encerra uma sessão do próprio usuário: o refresh token de outro usuário é ignorado
+            refreshTokenService.revogar(dto.getRefreshToken(), userDetails.getId());
         }
-        // Retorna uma resposta de erro caso a autenticação falhe, com uma mensagem personalizada
-        return ResponseEntity
-                .badRequest()
-                .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, "Credenciais Inválidas"));
+        return ResponseEntity.noContent().build();
     }
 }
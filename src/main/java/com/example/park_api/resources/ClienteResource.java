@@ -4,11 +4,22 @@ import com.example.park_api.entities.Cliente;
 import com.example.park_api.jwt.JwtUserDetails;
 import com.example.park_api.repositories.projection.ClienteProjection;
 import com.example.park_api.resources.dto.ClienteCreateDTO;
+import com.example.park_api.resources.dto.ClienteCursor;
+import com.example.park_api.resources.dto.ClienteDetalhesResponseDTO;
+import com.example.park_api.resources.dto.ClienteImportDTO;
+import com.example.park_api.resources.dto.ClienteImportResponseDTO;
 import com.example.park_api.resources.dto.ClienteResponseDTO;
+import com.example.park_api.resources.dto.HistoricoResponseDTO;
 import com.example.park_api.resources.dto.PageableDto;
+import com.example.park_api.resources.dto.SliceDto;
+import com.example.park_api.resources.dto.mapper.ClienteImportMapper;
 import com.example.park_api.resources.dto.mapper.ClienteMapper;
 import com.example.park_api.resources.dto.mapper.PageableMapper;
 import com.example.park_api.resources.exception.ErrorMessage;
+import com.example.park_api.resources.export.ExportFormat;
+import com.example.park_api.resources.export.ExportWriter;
+import com.example.park_api.services.ClienteHistoricoService;
+import com.example.park_api.services.ClienteImportService;
 import com.example.park_api.services.ClienteService;
 import com.example.park_api.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,16 +30,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+
 import static io.swagger.v3.oas.annotations.enums.ParameterIn.QUERY;
 
 @Tag(name = "Clientes", description = "Contém todas as opereções relativas ao recurso de um cliente")
@@ -39,6 +57,8 @@ public class ClienteResource {
 
     private final ClienteService clienteService;
     private final UserService usuarioService;
+    private final ClienteImportService clienteImportService;
+    private final ClienteHistoricoService historicoService;
 
     @Operation(summary = "Criar um novo cliente",
             description = "Recurso para criar um novo cliente vinculado a um usuário cadastrado. " +
@@ -64,6 +84,34 @@ public class ClienteResource {
         return ResponseEntity.status(201).body(ClienteMapper.toDto(cliente));
     }
 
+    @Operation(summary = "Importar clientes em lote",
+            description = "Recurso para cadastrar vários clientes de uma vez, a partir de um array JSON ou de um CSV com as colunas nome,cpf,username. " +
+                    "Cada cliente é vinculado ao usuário (Role CLIENTE) informado em username. " +
+                    "Linhas inválidas não interrompem a importação: a resposta traz o resultado de cada linha. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Importação processada; ver o resultado de cada linha",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ClienteImportResponseDTO.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ClienteImportResponseDTO> importJson(@RequestBody List<ClienteImportDTO> linhas) {
+        return ResponseEntity.ok(clienteImportService.importar(linhas));
+    }
+
+    @Operation(summary = "Importar clientes em lote a partir de CSV",
+            description = "Mesmo recurso de importação, recebendo um CSV (text/csv) com cabeçalho opcional nome,cpf,username. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"))
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ClienteImportResponseDTO> importCsv(@RequestBody String csv) {
+        return ResponseEntity.ok(clienteImportService.importar(ClienteImportMapper.fromCsv(csv)));
+    }
+
    @Operation(
            summary = "Localizar um cliente",
            description = "Recurso para localizar um cliente pelo ID. " +
@@ -87,7 +135,10 @@ public class ClienteResource {
     // Anotação que fornece informações detalhadas sobre a operação da API no Swagger
     @Operation(
             summary = "Recuperar lista de clientes",
-            description = "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            description = "Com withTotal=false a contagem não é executada e a resposta informa apenas se há próxima página; " +
+                    "com withTotal=approx os totais vêm de uma contagem atualizada periodicamente. " +
+                    "Com 'after' a paginação é por cursor (keyset por nome): envie 'after' vazio para a primeira página e depois o 'nextCursor' da resposta anterior. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
             security = @SecurityRequirement(name = "security"),
             parameters = {
                     @Parameter(
@@ -104,6 +155,16 @@ public class ClienteResource {
                             in = QUERY, name = "sort", hidden = true,  // Parâmetro para definir a ordenação, mas está oculto na documentação do Swagger
                             array = @ArraySchema(schema = @Schema(type = "string", defaultValue = "nome,asc")),  // Define que a ordenação é feita por 'nome' de forma ascendente
                             description = "Representa a ordenação dos resultados. Aceita múltiplos critérios de ordenação."
+                    ),
+                    @Parameter(
+                            in = QUERY, name = "withTotal",
+                            content = @Content(schema = @Schema(type = "string", allowableValues = {"false", "approx"})),
+                            description = "Desabilita (false) ou aproxima (approx) o cálculo de totalPages/totalElements"
+                    ),
+                    @Parameter(
+                            in = QUERY, name = "after",
+                            content = @Content(schema = @Schema(type = "string")),
+                            description = "Cursor opaco retornado em 'nextCursor'; vazio inicia a listagem"
                     )
             },
             responses = {  // Definição das possíveis respostas da API
@@ -128,14 +189,53 @@ public class ClienteResource {
         return ResponseEntity.ok(PageableMapper.toDto(clientes));
     }
 
+    // Variante do GET acima (mesmo caminho); documentada na operação principal
+    @Operation(hidden = true)
+    @GetMapping(params = {"withTotal=false", "!after"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SliceDto> getAllWithoutTotal(@Parameter(hidden = true)
+                                                       @PageableDefault(size = 5, sort = {"nome"}) Pageable pageable) {
+        Slice<ClienteProjection> clientes = clienteService.buscarTodosSemTotal(pageable);
+        return ResponseEntity.ok(PageableMapper.toSliceDto(clientes));
+    }
+
+    // Variante do GET acima (mesmo caminho); documentada na operação principal
+    @Operation(hidden = true)
+    @GetMapping(params = {"withTotal=approx", "!after"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageableDto> getAllWithApproximateTotal(@Parameter(hidden = true)
+                                                                  @PageableDefault(size = 5, sort = {"nome"}) Pageable pageable) {
+        Page<ClienteProjection> clientes = clienteService.buscarTodosComTotalAproximado(pageable);
+        return ResponseEntity.ok(PageableMapper.toDto(clientes));
+    }
+
+    // Variante do GET acima (mesmo caminho); documentada na operação principal
+    @Operation(hidden = true)
+    @GetMapping(params = "after")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SliceDto> getAllAfter(@Parameter(hidden = true) @RequestParam String after,
+                                                @Parameter(hidden = true) @PageableDefault(size = 5) Pageable pageable) {
+        ClienteCursor cursor = ClienteCursor.decode(after);
+        Slice<ClienteProjection> clientes = cursor == null
+                ? clienteService.buscarTodosApos(null, null, pageable.getPageSize())
+                : clienteService.buscarTodosApos(cursor.nome(), cursor.id(), pageable.getPageSize());
+        String nextCursor = null;
+        if (clientes.hasNext()) {
+            ClienteProjection ultimo = clientes.getContent().get(clientes.getNumberOfElements() - 1);
+            nextCursor = new ClienteCursor(ultimo.getNome(), ultimo.getId()).encode();
+        }
+        return ResponseEntity.ok(PageableMapper.toSliceDto(clientes, nextCursor));
+    }
+
 
-   @Operation(summary = "Recuperar dados do cliente autenticado",
-            description = "Requisição exige uso de um bearer token. Acesso restrito a Role='CLIENTE'",
+    @Operation(summary = "Recuperar dados do cliente autenticado",
+            description = "Inclui os totais de visitas e as visitas mais recentes; as anteriores ficam em /details/historico. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='CLIENTE'",
             security = @SecurityRequirement(name = "security"),
             responses = {
                     @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
                             content = @Content(mediaType = " application/json;charset=UTF-8",
-                                    schema = @Schema(implementation = ClienteResponseDTO.class))
+                                    schema = @Schema(implementation = ClienteDetalhesResponseDTO.class))
                     ),
                     @ApiResponse(responseCode = "403", description = "Recurso não permito ao perfil de ADMIN",
                             content = @Content(mediaType = " application/json;charset=UTF-8",
@@ -144,8 +244,68 @@ public class ClienteResource {
             })
     @GetMapping("/details")
     @PreAuthorize("hasRole('CLIENTE')")
-    public ResponseEntity<ClienteResponseDTO> getDetalhes(@AuthenticationPrincipal JwtUserDetails userDetails) {
+    public ResponseEntity<ClienteDetalhesResponseDTO> getDetalhes(@AuthenticationPrincipal JwtUserDetails userDetails) {
         Cliente cliente = clienteService.buscarPorUsuarioId(userDetails.getId());
-        return ResponseEntity.ok(ClienteMapper.toDto(cliente));
+        return ResponseEntity.ok(ClienteMapper.toDetalhesDto(cliente, historicoService.buscarResumo(cliente.getCpf())));
+    }
+
+    @Operation(summary = "Recuperar uma página do histórico de visitas do cliente autenticado",
+            description = "A página 0 traz as visitas mais recentes; cada página seguinte volta no tempo. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='CLIENTE'",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(
+                            in = QUERY, name = "pagina",
+                            content = @Content(schema = @Schema(type = "integer", defaultValue = "0")),
+                            description = "Página do histórico, de 0 até totalPaginas - 1"
+                    )
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = HistoricoResponseDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Página do histórico não encontrada",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permito ao perfil de ADMIN",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/details/historico")
+    @PreAuthorize("hasRole('CLIENTE')")
+    public ResponseEntity<HistoricoResponseDTO> getHistorico(@AuthenticationPrincipal JwtUserDetails userDetails,
+                                                             @Parameter(hidden = true) @RequestParam(defaultValue = "0") int pagina) {
+        Cliente cliente = clienteService.buscarPorUsuarioId(userDetails.getId());
+        return ResponseEntity.ok(ClienteMapper.toHistoricoDto(pagina, historicoService.buscarPagina(cliente.getCpf(), pagina)));
+    }
+
+    @Operation(summary = "Exportar todos os clientes",
+            description = "Exportação em streaming nos formatos ndjson ou csv, com uso de memória constante. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(
+                            in = QUERY, name = "format",
+                            content = @Content(schema = @Schema(type = "string", defaultValue = "ndjson", allowableValues = {"ndjson", "csv"})),
+                            description = "Formato do arquivo exportado"
+                    )
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Clientes exportados com sucesso",
+                            content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+                    @ApiResponse(responseCode = "400", description = "Formato de exportação não suportado",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void export(@Parameter(hidden = true) @RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=customers." + exportFormat.getExtension());
+        try (ExportWriter writer = new ExportWriter(exportFormat, response.getOutputStream(), "id", "nome", "cpf")) {
+            clienteService.exportar(cliente -> writer.writeRow(cliente.getId(), cliente.getNome(), cliente.getCpf()));
+        }
     }
 }
@@ -0,0 +1,73 @@
+package com.example.park_api.resources;
+
+import com.example.park_api.resources.dto.EstacionamentoCreateDTO;
+import com.example.park_api.resources.dto.EstacionamentoResponseDTO;
+import com.example.park_api.resources.dto.mapper.EstacionamentoMapper;
+import com.example.park_api.resources.exception.ErrorMessage;
+import com.example.park_api.services.EstacionamentoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Estacionamentos", description = "Contém as operações de entrada (check-in) e saída (check-out) de clientes")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/estacionamentos")
+public class EstacionamentoResource {
+
+    private final EstacionamentoService estacionamentoService;
+
+    @Operation(summary = "Registrar a entrada de um cliente",
+            description = "Recurso usado pelos portões de entrada: ocupa uma vaga livre da zona para o cliente do CPF informado " +
+                    "e devolve o recibo usado no check-out. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Entrada registrada com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = EstacionamentoResponseDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Cliente não cadastrado ou zona sem vagas cadastradas",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "409", description = "Cliente já possui entrada sem saída ou nenhuma vaga livre na zona",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "422", description = "Recurso não processado por falta de dados ou dados inválidos",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "503", description = "Registro de eventos sobrecarregado, tente novamente",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping("/check-in")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EstacionamentoResponseDTO> checkIn(@RequestBody @Valid EstacionamentoCreateDTO dto) {
+        EstacionamentoService.Ticket ticket = estacionamentoService.checkIn(dto.getCpf(), dto.getZona());
+        return ResponseEntity.status(201).body(EstacionamentoMapper.toDto(ticket));
+    }
+
+    @Operation(summary = "Registrar a saída de um cliente",
+            description = "Recurso usado pelos portões de saída: encerra o recibo e libera a vaga. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Saída registrada com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = EstacionamentoResponseDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Recibo não encontrado ou já encerrado",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "503", description = "Registro de eventos sobrecarregado, tente novamente",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping("/check-out/{recibo}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EstacionamentoResponseDTO> checkOut(@PathVariable String recibo) {
+        return ResponseEntity.ok(EstacionamentoMapper.toDto(estacionamentoService.checkOut(recibo)));
+    }
+}
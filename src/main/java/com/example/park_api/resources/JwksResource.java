@@ -0,0 +1,32 @@
+package com.example.park_api.resources;
+
+import com.example.park_api.jwt.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Tag(name = "Autenticação", description = "Recurso para proceder com a autenticação na API")
+@RequiredArgsConstructor
+@RestController
+public class JwksResource {
+    private final JwtKeyRing keyRing;
+
+    // Cache menor que o jwt.keys.prepublish: uma chave nova sempre chega aos verificadores antes de assinar o primeiro token
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+
+    @Operation(summary = "Chaves públicas de verificação dos tokens",
+            description = "JWKS (RFC 7517) com as chaves ES256 em uso, na rotação e ainda aceitas. O 'kid' do header do token indica a chave.",
+            responses = @ApiResponse(responseCode = "200", description = "Conjunto de chaves públicas"))
+    @GetMapping(value = "/.well-known/jwks.json", produces = "application/jwk-set+json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(keyRing.jwks());
+    }
+}
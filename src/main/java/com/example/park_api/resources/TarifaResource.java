@@ -0,0 +1,97 @@
+package com.example.park_api.resources;
+
+import com.example.park_api.entities.Tarifa;
+import com.example.park_api.resources.dto.TarifaCreateDTO;
+import com.example.park_api.resources.dto.TarifaRecalculoResponseDTO;
+import com.example.park_api.resources.dto.TarifaResponseDTO;
+import com.example.park_api.resources.dto.mapper.TarifaMapper;
+import com.example.park_api.resources.exception.ErrorMessage;
+import com.example.park_api.services.TarifaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+import static io.swagger.v3.oas.annotations.enums.ParameterIn.QUERY;
+
+@Tag(name = "Tarifas", description = "Contém as operações de cadastro da tarifa de cobrança e de recálculo de tickets encerrados")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/tarifas")
+public class TarifaResource {
+
+    private final TarifaService tarifaService;
+
+    @Operation(summary = "Cadastrar uma nova tarifa",
+            description = "A tarifa cadastrada passa a valer para os próximos check-outs, sem interromper os que estão em andamento. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Recurso criado com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = TarifaResponseDTO.class))),
+                    @ApiResponse(responseCode = "422", description = "Recurso não processado por falta de dados, dados inválidos ou faixas sobrepostas",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TarifaResponseDTO> create(@RequestBody @Valid TarifaCreateDTO dto) {
+        Tarifa tarifa = tarifaService.salvar(TarifaMapper.toTarifa(dto));
+        return ResponseEntity.status(201).body(TarifaMapper.toDto(tarifa));
+    }
+
+    @Operation(summary = "Recuperar a tarifa vigente",
+            description = "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = TarifaResponseDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Nenhuma tarifa cadastrada",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/vigente")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TarifaResponseDTO> getVigente() {
+        return ResponseEntity.ok(TarifaMapper.toDto(tarifaService.buscarVigente()));
+    }
+
+    @Operation(summary = "Recalcular os tickets encerrados em um dia",
+            description = "Compara o total cobrado pelas saídas do dia com o que a tarifa vigente cobraria. Os tickets não são alterados. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(
+                            in = QUERY, name = "dia",
+                            content = @Content(schema = @Schema(type = "string", format = "date")),
+                            description = "Dia das saídas, no formato yyyy-MM-dd"
+                    )
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Recálculo executado com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = TarifaRecalculoResponseDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Nenhuma tarifa cadastrada",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping("/recalcular")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TarifaRecalculoResponseDTO> recalcular(
+            @Parameter(hidden = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dia) {
+        return ResponseEntity.ok(TarifaMapper.toDto(tarifaService.recalcularDia(dia)));
+    }
+}
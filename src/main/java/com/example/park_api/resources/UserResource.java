@@ -6,6 +6,8 @@ import com.example.park_api.resources.dto.UserPasswordDTO;
 import com.example.park_api.resources.dto.UserResponseDTO;
 import com.example.park_api.resources.dto.mapper.UserMapper;
 import com.example.park_api.resources.exception.ErrorMessage;
+import com.example.park_api.resources.export.ExportFormat;
+import com.example.park_api.resources.export.ExportWriter;
 import com.example.park_api.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -14,13 +16,16 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @Tag(name = "users")
@@ -99,4 +104,28 @@ public class UserResource {
         List<User> users = userService.buscarTodos();
         return ResponseEntity.ok(UserMapper.toListDto(users));
     }
+
+    @Operation(summary = "Exportar todos os usuários", description = "Exportação em streaming nos formatos ndjson ou csv, com uso de memória constante. " +
+            "Requisição exige um Bearer Token. Acesso restrito a ADMIN",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Usuários exportados com sucesso",
+                            content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+                    @ApiResponse(responseCode = "400", description = "Formato de exportação não suportado",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Usuário sem permissão para acessar este recurso",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+            }
+    )
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void export(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users." + exportFormat.getExtension());
+        try (ExportWriter writer = new ExportWriter(exportFormat, response.getOutputStream(), "id", "username", "role")) {
+            userService.exportar(user -> writer.writeRow(user.getId(), user.getUsername(), UserMapper.toRoleName(user.getRole())));
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package com.example.park_api.resources;
+
+import com.example.park_api.entities.Vaga;
+import com.example.park_api.resources.dto.OcupacaoResponseDTO;
+import com.example.park_api.resources.dto.VagaCreateDTO;
+import com.example.park_api.resources.dto.VagaResponseDTO;
+import com.example.park_api.resources.dto.mapper.VagaMapper;
+import com.example.park_api.resources.exception.ErrorMessage;
+import com.example.park_api.services.OcupacaoService;
+import com.example.park_api.services.VagaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+@Tag(name = "Vagas", description = "Contém todas as operações relativas ao recurso de uma vaga de estacionamento")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/vagas")
+public class VagaResource {
+
+    private final VagaService vagaService;
+    private final OcupacaoService ocupacaoService;
+
+    @Operation(summary = "Criar uma nova vaga",
+            description = "Recurso para cadastrar uma vaga livre em uma zona do estacionamento. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Recurso criado com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = VagaResponseDTO.class))),
+                    @ApiResponse(responseCode = "409", description = "Código da vaga já possui cadastro no sistema",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "422", description = "Recurso não processado por falta de dados ou dados inválidos",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<VagaResponseDTO> create(@RequestBody @Valid VagaCreateDTO dto) {
+        Vaga vaga = vagaService.salvar(VagaMapper.toVaga(dto));
+        return ResponseEntity.status(201).body(VagaMapper.toDto(vaga));
+    }
+
+    @Operation(summary = "Ocupar uma vaga livre da zona",
+            description = "Recurso usado pelos portões de entrada: escolhe uma vaga livre da zona e a marca como ocupada. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Vaga ocupada com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = VagaResponseDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Zona sem vagas cadastradas",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "409", description = "Nenhuma vaga livre na zona",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping("/ocupar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<VagaResponseDTO> ocupar(@RequestParam String zona) {
+        return ResponseEntity.ok(VagaMapper.toDto(vagaService.ocupar(zona)));
+    }
+
+    @Operation(summary = "Liberar uma vaga",
+            description = "Recurso para marcar uma vaga como livre. Liberar uma vaga já livre não é erro. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Vaga liberada com sucesso"),
+                    @ApiResponse(responseCode = "404", description = "Vaga não encontrada",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping("/{id}/liberar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> liberar(@PathVariable Long id) {
+        vagaService.liberar(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Quantidade de vagas livres por zona",
+            description = "Recurso para consultar as vagas livres de cada zona, lidas do índice em memória. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8")),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/livres")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> getLivres() {
+        return ResponseEntity.ok(vagaService.buscarLivresPorZona());
+    }
+
+    @Operation(summary = "Ocupação por zona",
+            description = "Recurso para consultar as vagas cadastradas e ocupadas de cada zona, lidas dos contadores em memória. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    array = @ArraySchema(schema = @Schema(implementation = OcupacaoResponseDTO.class)))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/ocupacao")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<OcupacaoResponseDTO>> getOcupacao() {
+        return ResponseEntity.ok(VagaMapper.toOcupacaoDto(ocupacaoService.buscarOcupacao()));
+    }
+
+    @Operation(summary = "Acompanhar a ocupação por zona",
+            description = "Stream de server-sent events para painéis: envia a ocupação atual ao conectar e, depois, um evento " +
+                    "'ocupacao' a cada mudança (agrupadas por intervalo) ou heartbeat. " +
+                    "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stream iniciado com sucesso",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                    array = @ArraySchema(schema = @Schema(implementation = OcupacaoResponseDTO.class)))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permitido ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping(value = "/ocupacao/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Flux<ServerSentEvent<String>> streamOcupacao() {
+        return ocupacaoService.acompanharOcupacao();
+    }
+}
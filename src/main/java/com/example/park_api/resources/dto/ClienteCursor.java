@@ -0,0 +1,31 @@
+package com.example.park_api.resources.dto;
+
+import com.example.park_api.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Posição de um cliente na ordenação (nome, id), serializada como um cursor opaco em Base64 URL-safe
+public record ClienteCursor(String nome, Long id) {
+
+    private static final char SEPARATOR = ':';
+
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + nome;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Um cursor vazio representa o início da listagem e resulta em null
+    public static ClienteCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new ClienteCursor(raw.substring(separator + 1), Long.valueOf(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new InvalidCursorException(String.format("Cursor '%s' inválido", cursor));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.park_api.resources.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClienteDetalhesResponseDTO {
+    private Long id;
+    private String nome;
+    private String cpf;
+    private long visitas;
+    private BigDecimal totalGasto;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime ultimaVisita;
+    // Páginas disponíveis em api/v1/customers/details/historico; a página 0 é a de "historico"
+    private int totalPaginas;
+    // Visitas mais recentes, da última para a primeira
+    private List<VisitaResponseDTO> historico;
+}
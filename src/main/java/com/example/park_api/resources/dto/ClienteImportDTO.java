@@ -0,0 +1,26 @@
+package com.example.park_api.resources.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.validator.constraints.br.CPF;
+
+// Linha de uma importação em lote: o cliente é vinculado ao usuário (Role CLIENTE) informado em username
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ClienteImportDTO {
+    @NotBlank
+    @Size(min = 5, max = 100)
+    private String nome;
+    @NotBlank
+    @Size(min = 11, max = 11)
+    @CPF
+    private String cpf;
+    @NotBlank
+    @Email(regexp = "^[a-z0-9.+-]+@[a-z0-9.-]+\\.[a-z]{2,}$", message = "Incorrect email format")
+    private String username;
+}
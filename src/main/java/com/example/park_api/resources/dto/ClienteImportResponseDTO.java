@@ -0,0 +1,18 @@
+package com.example.park_api.resources.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ClienteImportResponseDTO {
+    private int total;
+    private int criados;
+    private int rejeitados;
+    private List<ClienteImportResultDTO> linhas = new ArrayList<>();
+}
@@ -0,0 +1,21 @@
+package com.example.park_api.resources.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ClienteImportResultDTO {
+    private int linha;
+    private String cpf;
+    private Status status;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String mensagem;
+
+    public enum Status {
+        CRIADO, REJEITADO
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.park_api.resources.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.validator.constraints.br.CPF;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class EstacionamentoCreateDTO {
+    @NotBlank
+    @Size(min = 11, max = 11)
+    @CPF
+    private String cpf;
+    @NotBlank
+    @Size(max = 10)
+    @Pattern(regexp = "[A-Z0-9]+")
+    private String zona;
+}
@@ -0,0 +1,28 @@
+package com.example.park_api.resources.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EstacionamentoResponseDTO {
+    private String recibo;
+    private String cpf;
+    private String codigoVaga;
+    private String zona;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime dataEntrada;
+    // Presente apenas depois do check-out
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime dataSaida;
+    // Valor cobrado na saída, quando há tarifa cadastrada
+    private BigDecimal valor;
+}
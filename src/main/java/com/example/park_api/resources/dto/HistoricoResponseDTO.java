@@ -0,0 +1,15 @@
+package com.example.park_api.resources.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class HistoricoResponseDTO {
+    private int pagina;
+    private List<VisitaResponseDTO> visitas;
+}
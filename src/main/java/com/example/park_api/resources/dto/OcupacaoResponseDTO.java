@@ -0,0 +1,15 @@
+package com.example.park_api.resources.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class OcupacaoResponseDTO {
+    private String zona;
+    private int vagas;
+    private long ocupadas;
+    private long livres;
+}
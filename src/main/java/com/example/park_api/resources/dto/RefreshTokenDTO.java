@@ -0,0 +1,13 @@
+package com.example.park_api.resources.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenDTO {
+    @NotBlank
+    private String refreshToken;
+}
@@ -0,0 +1,28 @@
+package com.example.park_api.resources.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Página sem totais: evita o COUNT e informa apenas se existe uma próxima página
+@Getter @Setter
+public class SliceDto {
+    private List content = new ArrayList<>();
+    // Número e indicador de primeira página só existem na paginação por offset
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean first;
+    @JsonProperty("page")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer number;
+    private int size;
+    @JsonProperty("pageElements")
+    private int numberOfElements;
+    private boolean hasNext;
+    // Cursor opaco para a próxima página (paginação por keyset); ausente na última página
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+}
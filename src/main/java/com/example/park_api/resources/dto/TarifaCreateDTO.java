@@ -0,0 +1,30 @@
+package com.example.park_api.resources.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class TarifaCreateDTO {
+    @Min(1)
+    @Max(1440)
+    private int fracaoMinutos;
+    @DecimalMin("0.00")
+    @Digits(integer = 8, fraction = 2)
+    private BigDecimal tetoDiario;
+    @NotEmpty
+    private List<@Valid TarifaFaixaDTO> faixas;
+    private List<@Valid TarifaDescontoDTO> descontos = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.example.park_api.resources.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class TarifaDescontoDTO {
+    @Min(1)
+    private int visitasMinimas;
+    @Min(1)
+    @Max(100)
+    private int percentual;
+}
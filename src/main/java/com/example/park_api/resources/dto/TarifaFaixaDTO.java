@@ -0,0 +1,29 @@
+package com.example.park_api.resources.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class TarifaFaixaDTO {
+    @NotNull
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime inicio;
+    // Igual ou anterior ao início: a faixa atravessa a meia-noite
+    @NotNull
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime fim;
+    @NotNull
+    @DecimalMin("0.00")
+    @Digits(integer = 8, fraction = 2)
+    private BigDecimal valorFracao;
+}
@@ -0,0 +1,18 @@
+package com.example.park_api.resources.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class TarifaRecalculoResponseDTO {
+    private LocalDate dia;
+    private int tickets;
+    private BigDecimal totalCobrado;
+    private BigDecimal totalRecalculado;
+}
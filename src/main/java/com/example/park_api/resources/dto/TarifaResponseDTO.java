@@ -0,0 +1,25 @@
+package com.example.park_api.resources.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TarifaResponseDTO {
+    private Long id;
+    private int fracaoMinutos;
+    private BigDecimal tetoDiario;
+    private List<TarifaFaixaDTO> faixas;
+    private List<TarifaDescontoDTO> descontos;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime dataCriacao;
+}
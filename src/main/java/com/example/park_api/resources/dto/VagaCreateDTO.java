@@ -0,0 +1,22 @@
+package com.example.park_api.resources.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class VagaCreateDTO {
+    @NotBlank
+    @Size(max = 10)
+    @Pattern(regexp = "[A-Z0-9-]+")
+    private String codigo;
+    @NotBlank
+    @Size(max = 10)
+    @Pattern(regexp = "[A-Z0-9]+")
+    private String zona;
+}
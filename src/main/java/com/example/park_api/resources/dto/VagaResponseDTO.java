@@ -0,0 +1,15 @@
+package com.example.park_api.resources.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class VagaResponseDTO {
+    private Long id;
+    private String codigo;
+    private String zona;
+    private String status;
+}
@@ -0,0 +1,74 @@
+package com.example.park_api.resources.dto.mapper;
+
+import com.example.park_api.resources.dto.ClienteImportDTO;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ClienteImportMapper {
+
+    private static final String HEADER = "nome,cpf,username";
+
+    // Converte um CSV (RFC 4180) com as colunas nome,cpf,username em linhas de importação.
+    // O cabeçalho é opcional; linhas em branco são ignoradas e colunas ausentes ficam nulas para a validação rejeitar
+    public static List<ClienteImportDTO> fromCsv(String csv) {
+        List<ClienteImportDTO> linhas = new ArrayList<>();
+        for (List<String> campos : parse(csv)) {
+            if (campos.size() == 1 && campos.get(0).isBlank()) {
+                continue;
+            }
+            if (linhas.isEmpty() && HEADER.equalsIgnoreCase(String.join(",", campos).trim())) {
+                continue;
+            }
+            linhas.add(new ClienteImportDTO(campo(campos, 0), campo(campos, 1), campo(campos, 2)));
+        }
+        return linhas;
+    }
+
+    private static String campo(List<String> campos, int index) {
+        return index < campos.size() ? campos.get(index).trim() : null;
+    }
+
+    private static List<List<String>> parse(String csv) {
+        List<List<String>> registros = new ArrayList<>();
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean aspas = false;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (aspas) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    aspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                aspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                campos.add(campo.toString());
+                registros.add(campos);
+                campos = new ArrayList<>();
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (campo.length() > 0 || !campos.isEmpty()) {
+            campos.add(campo.toString());
+            registros.add(campos);
+        }
+        return registros;
+    }
+}
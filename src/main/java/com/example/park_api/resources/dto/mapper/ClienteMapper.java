@@ -2,23 +2,47 @@ package com.example.park_api.resources.dto.mapper;
 
 import com.example.park_api.entities.Cliente;
 import com.example.park_api.resources.dto.ClienteCreateDTO;
+import com.example.park_api.resources.dto.ClienteDetalhesResponseDTO;
 import com.example.park_api.resources.dto.ClienteResponseDTO;
+import com.example.park_api.resources.dto.HistoricoResponseDTO;
+import com.example.park_api.resources.dto.VisitaResponseDTO;
+import com.example.park_api.services.ClienteHistoricoService;
+import com.example.park_api.services.PaginaHistorico;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
+
+import java.util.List;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ClienteMapper {
 
     // Este metodo converte um objeto ClienteCreateDTO em um objeto Cliente.
-    // Ele usa a biblioteca ModelMapper para mapear os atributos do DTO para a entidade Cliente.
+    // O mapeamento é feito campo a campo, sem reflexão, pois é executado a cada requisição.
     public static Cliente toCliente(ClienteCreateDTO dto) {
-        return new ModelMapper().map(dto, Cliente.class);
+        Cliente cliente = new Cliente();
+        cliente.setNome(dto.getNome());
+        cliente.setCpf(dto.getCpf());
+        return cliente;
     }
 
     // Este metodo converte um objeto Cliente em um objeto ClienteResponseDTO.
-    // Ele também usa o ModelMapper para realizar o mapeamento dos atributos da entidade para o DTO de resposta.
     public static ClienteResponseDTO toDto(Cliente cliente) {
-        return new ModelMapper().map(cliente, ClienteResponseDTO.class);
+        return new ClienteResponseDTO(cliente.getId(), cliente.getNome(), cliente.getCpf());
+    }
+
+    // Dados do cliente com os totais e as visitas recentes do histórico
+    public static ClienteDetalhesResponseDTO toDetalhesDto(Cliente cliente, ClienteHistoricoService.Resumo resumo) {
+        return new ClienteDetalhesResponseDTO(cliente.getId(), cliente.getNome(), cliente.getCpf(), resumo.visitas(),
+                resumo.totalGasto(), resumo.ultimaVisita(), resumo.totalPaginas(), toVisitasDto(resumo.recentes()));
+    }
+
+    public static HistoricoResponseDTO toHistoricoDto(int pagina, List<PaginaHistorico.Visita> visitas) {
+        return new HistoricoResponseDTO(pagina, toVisitasDto(visitas));
+    }
+
+    private static List<VisitaResponseDTO> toVisitasDto(List<PaginaHistorico.Visita> visitas) {
+        return visitas.stream()
+                .map(visita -> new VisitaResponseDTO(visita.codigoVaga(), visita.dataEntrada(), visita.dataSaida(), visita.valor()))
+                .toList();
     }
 }
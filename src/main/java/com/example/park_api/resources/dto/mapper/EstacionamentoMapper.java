@@ -0,0 +1,19 @@
+package com.example.park_api.resources.dto.mapper;
+
+import com.example.park_api.entities.EstacionamentoEvento;
+import com.example.park_api.resources.dto.EstacionamentoResponseDTO;
+import com.example.park_api.services.EstacionamentoService;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class EstacionamentoMapper {
+
+    public static EstacionamentoResponseDTO toDto(EstacionamentoService.Ticket ticket) {
+        EstacionamentoEvento entrada = ticket.entrada();
+        EstacionamentoEvento saida = ticket.saida();
+        return new EstacionamentoResponseDTO(entrada.getRecibo(), entrada.getCpf(), entrada.getCodigoVaga(),
+                entrada.getZona(), entrada.getDataHora(), saida != null ? saida.getDataHora() : null,
+                saida != null ? saida.getValor() : null);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.park_api.resources.dto.mapper;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+// Timers dos mappers, registrados no registry global (ao qual o Spring Boot adiciona o registry da aplicação).
+// Só as conversões de coleções e páginas são medidas: a conversão de um único objeto custa menos que a própria medição.
+final class MapperMetrics {
+
+    private MapperMetrics() {
+    }
+
+    static Timer timer(String mapper, String method) {
+        return Timer.builder("mapper.duration")
+                .description("Tempo de conversão de coleções e páginas em DTOs")
+                .tag("mapper", mapper)
+                .tag("method", method)
+                .register(Metrics.globalRegistry);
+    }
+}
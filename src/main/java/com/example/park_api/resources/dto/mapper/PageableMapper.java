@@ -1,15 +1,54 @@
 package com.example.park_api.resources.dto.mapper;
 
 import com.example.park_api.resources.dto.PageableDto;
+import com.example.park_api.resources.dto.SliceDto;
+import io.micrometer.core.instrument.Timer;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class PageableMapper {
 
+    private static final Timer PAGE_TIMER = MapperMetrics.timer("PageableMapper", "toDto");
+    private static final Timer SLICE_TIMER = MapperMetrics.timer("PageableMapper", "toSliceDto");
+
     public static PageableDto toDto(Page page) {
-        return new ModelMapper().map(page, PageableDto.class);
+        return PAGE_TIMER.record(() -> mapPage(page));
+    }
+
+    public static SliceDto toSliceDto(Slice slice) {
+        SliceDto dto = toSliceDto(slice, null);
+        dto.setFirst(slice.isFirst());
+        dto.setNumber(slice.getNumber());
+        return dto;
+    }
+
+    public static SliceDto toSliceDto(Slice slice, String nextCursor) {
+        return SLICE_TIMER.record(() -> mapSlice(slice, nextCursor));
+    }
+
+    private static PageableDto mapPage(Page page) {
+        PageableDto dto = new PageableDto();
+        dto.setContent(page.getContent());
+        dto.setFirst(page.isFirst());
+        dto.setLast(page.isLast());
+        dto.setNumber(page.getNumber());
+        dto.setSize(page.getSize());
+        dto.setNumberOfElements(page.getNumberOfElements());
+        dto.setTotalPages(page.getTotalPages());
+        dto.setTotalElements((int) page.getTotalElements());
+        return dto;
+    }
+
+    private static SliceDto mapSlice(Slice slice, String nextCursor) {
+        SliceDto dto = new SliceDto();
+        dto.setContent(slice.getContent());
+        dto.setSize(slice.getSize());
+        dto.setNumberOfElements(slice.getNumberOfElements());
+        dto.setHasNext(slice.hasNext());
+        dto.setNextCursor(nextCursor);
+        return dto;
     }
 }
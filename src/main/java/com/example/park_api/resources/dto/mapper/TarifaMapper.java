@@ -0,0 +1,48 @@
+package com.example.park_api.resources.dto.mapper;
+
+import com.example.park_api.entities.Tarifa;
+import com.example.park_api.resources.dto.TarifaCreateDTO;
+import com.example.park_api.resources.dto.TarifaDescontoDTO;
+import com.example.park_api.resources.dto.TarifaFaixaDTO;
+import com.example.park_api.resources.dto.TarifaRecalculoResponseDTO;
+import com.example.park_api.resources.dto.TarifaResponseDTO;
+import com.example.park_api.services.TarifaService;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class TarifaMapper {
+
+    public static Tarifa toTarifa(TarifaCreateDTO dto) {
+        Tarifa tarifa = new Tarifa();
+        tarifa.setFracaoMinutos(dto.getFracaoMinutos());
+        tarifa.setTetoDiario(dto.getTetoDiario());
+        tarifa.setFaixas(new ArrayList<>(dto.getFaixas().stream()
+                .map(faixa -> new Tarifa.Faixa(faixa.getInicio(), faixa.getFim(), faixa.getValorFracao()))
+                .toList()));
+        if (dto.getDescontos() != null) {
+            tarifa.setDescontos(new ArrayList<>(dto.getDescontos().stream()
+                    .map(desconto -> new Tarifa.Desconto(desconto.getVisitasMinimas(), desconto.getPercentual()))
+                    .toList()));
+        }
+        return tarifa;
+    }
+
+    public static TarifaResponseDTO toDto(Tarifa tarifa) {
+        return new TarifaResponseDTO(tarifa.getId(), tarifa.getFracaoMinutos(), tarifa.getTetoDiario(),
+                tarifa.getFaixas().stream()
+                        .map(faixa -> new TarifaFaixaDTO(faixa.getInicio(), faixa.getFim(), faixa.getValorFracao()))
+                        .toList(),
+                tarifa.getDescontos().stream()
+                        .map(desconto -> new TarifaDescontoDTO(desconto.getVisitasMinimas(), desconto.getPercentual()))
+                        .toList(),
+                tarifa.getDataCriacao());
+    }
+
+    public static TarifaRecalculoResponseDTO toDto(TarifaService.Recalculo recalculo) {
+        return new TarifaRecalculoResponseDTO(recalculo.dia(), recalculo.tickets(), recalculo.totalCobrado(),
+                recalculo.totalRecalculado());
+    }
+}
@@ -3,36 +3,50 @@ package com.example.park_api.resources.dto.mapper;
 import com.example.park_api.entities.User;
 import com.example.park_api.resources.dto.UserCreateDTO;
 import com.example.park_api.resources.dto.UserResponseDTO;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.PropertyMap;
+import io.micrometer.core.instrument.Timer;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class UserMapper {
+
+    // Nome de cada role sem o prefixo "ROLE_", calculado uma única vez e indexado pelo ordinal do enum
+    private static final String[] ROLE_NAMES = roleNames();
+
+    private static final Timer LIST_TIMER = MapperMetrics.timer("UserMapper", "toListDto");
+
     public static User toUser(UserCreateDTO userCreateDTO) {
-        return new ModelMapper().map(userCreateDTO, User.class);
+        User user = new User();
+        user.setUsername(userCreateDTO.getUsername());
+        user.setPassword(userCreateDTO.getPassword());
+        return user;
     }
 
     public static UserResponseDTO toDto(User usuario) {
-        // Extrai o papel (role) do usuário, removendo o prefixo "ROLE_"
-        String role = usuario.getRole().name().substring("ROLE_".length());
-        // Cria um PropertyMap para definir uma regra de mapeamento customizada entre User e UserResponseDTO
-        PropertyMap<User, UserResponseDTO> props = new PropertyMap<User, UserResponseDTO>() {
-            @Override
-            protected void configure() {
-                // Define a configuração de mapeamento para o campo role no UserResponseDTO
-                map().setRole(role);
-            }
-        };
-        ModelMapper mapper = new ModelMapper();
-        // Adiciona o mapeamento customizado (props) ao ModelMapper
-        mapper.addMappings(props);
-        // Retorna o objeto UserResponseDTO mapeado a partir do objeto User
-        return mapper.map(usuario, UserResponseDTO.class);
+        return new UserResponseDTO(usuario.getId(), usuario.getUsername(), toRoleName(usuario.getRole()));
+    }
+
+    public static String toRoleName(User.Role role) {
+        return ROLE_NAMES[role.ordinal()];
     }
 
     public static List<UserResponseDTO> toListDto(List<User> users) {
-        return users.stream().map(user -> toDto(user)).collect(Collectors.toList());
+        return LIST_TIMER.record(() -> {
+            List<UserResponseDTO> dtos = new ArrayList<>(users.size());
+            for (User user : users) {
+                dtos.add(toDto(user));
+            }
+            return dtos;
+        });
+    }
+
+    private static String[] roleNames() {
+        User.Role[] roles = User.Role.values();
+        String[] names = new String[roles.length];
+        for (User.Role role : roles) {
+            // Extrai o papel (role) do usuário, removendo o prefixo "ROLE_"
+            names[role.ordinal()] = role.name().substring("ROLE_".length());
+        }
+        return names;
     }
 }
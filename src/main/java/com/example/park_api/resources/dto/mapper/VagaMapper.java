@@ -0,0 +1,33 @@
+package com.example.park_api.resources.dto.mapper;
+
+import com.example.park_api.entities.Vaga;
+import com.example.park_api.resources.dto.OcupacaoResponseDTO;
+import com.example.park_api.resources.dto.VagaCreateDTO;
+import com.example.park_api.resources.dto.VagaResponseDTO;
+import com.example.park_api.services.OcupacaoPorZona;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class VagaMapper {
+
+    public static Vaga toVaga(VagaCreateDTO dto) {
+        Vaga vaga = new Vaga();
+        vaga.setCodigo(dto.getCodigo());
+        vaga.setZona(dto.getZona());
+        return vaga;
+    }
+
+    public static VagaResponseDTO toDto(Vaga vaga) {
+        return new VagaResponseDTO(vaga.getId(), vaga.getCodigo(), vaga.getZona(), vaga.getStatus().name());
+    }
+
+    public static List<OcupacaoResponseDTO> toOcupacaoDto(List<OcupacaoPorZona.Zona> zonas) {
+        return zonas.stream()
+                .map(zona -> new OcupacaoResponseDTO(zona.zona(), zona.vagas(), zona.ocupadas(),
+                        Math.max(0, zona.vagas() - zona.ocupadas())))
+                .toList();
+    }
+}
@@ -1,27 +1,44 @@
 package com.example.park_api.resources.exception;
 
+import com.example.park_api.exception.CodigoUniqueViolationException;
 import com.example.park_api.exception.CpfUniqueViolationException;
 import com.example.park_api.exception.EntityNotFoundException;
+import com.example.park_api.exception.EstacionamentoEmAbertoException;
+import com.example.park_api.exception.InvalidCursorException;
+import com.example.park_api.exception.InvalidRefreshTokenException;
 import com.example.park_api.exception.PasswordInvalidException;
+import com.example.park_api.exception.ServiceUnavailableException;
+import com.example.park_api.exception.TarifaInvalidaException;
+import com.example.park_api.exception.UnsupportedExportFormatException;
 import com.example.park_api.exception.UsernameUniqueViolationException;
+import com.example.park_api.exception.VagaIndisponivelException;
+import com.example.park_api.logging.LogSampler;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
 @Slf4j
 @RestControllerAdvice //ouvinte de exceções - quando uma exceção for emitida, verifica se há um tratamento para ela
 public class ApiExceptionHandler {
 
+    // No máximo 20 linhas de erro de requisição a cada 10s; as demais são apenas contadas
+    private final LogSampler apiErrorLog = new LogSampler(20, 10, TimeUnit.SECONDS);
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorMessage> accessDeniedException(AccessDeniedException ex, HttpServletRequest request) {
-        log.error("Api Error - ", ex);
+        logApiError(request, HttpStatus.FORBIDDEN, ex);
         return ResponseEntity
                 .status(HttpStatus.FORBIDDEN)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -30,25 +47,52 @@ public class ApiExceptionHandler {
 
     @ExceptionHandler(PasswordInvalidException.class)
     public ResponseEntity<ErrorMessage> passwordInvalidException(RuntimeException ex, HttpServletRequest request) {
-        log.error("Api Error - ", ex);
+        logApiError(request, HttpStatus.BAD_REQUEST, ex);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, ex.getMessage()));
+    }
+
+    @ExceptionHandler({InvalidCursorException.class, UnsupportedExportFormatException.class})
+    public ResponseEntity<ErrorMessage> invalidParameterException(RuntimeException ex, HttpServletRequest request) {
+        logApiError(request, HttpStatus.BAD_REQUEST, ex);
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<ErrorMessage> invalidRefreshTokenException(RuntimeException ex, HttpServletRequest request) {
+        logApiError(request, HttpStatus.UNAUTHORIZED, ex);
+        return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.UNAUTHORIZED, ex.getMessage()));
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ErrorMessage> entityNotFoundException(RuntimeException ex, HttpServletRequest request) {
-        log.error("Api Error - ", ex);
+        logApiError(request, HttpStatus.NOT_FOUND, ex);
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(new ErrorMessage(request, HttpStatus.NOT_FOUND, ex.getMessage()));
     }
 
-    @ExceptionHandler({UsernameUniqueViolationException.class, CpfUniqueViolationException.class})
+    @ExceptionHandler({UsernameUniqueViolationException.class, CpfUniqueViolationException.class, CodigoUniqueViolationException.class})
     public ResponseEntity<ErrorMessage> uniqueViolationException(RuntimeException ex, HttpServletRequest request){
-        log.error("Api Error - ", ex);
+        logApiError(request, HttpStatus.CONFLICT, ex);
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.CONFLICT, ex.getMessage()));
+    }
+
+    @ExceptionHandler({VagaIndisponivelException.class, EstacionamentoEmAbertoException.class})
+    public ResponseEntity<ErrorMessage> conflictException(RuntimeException ex, HttpServletRequest request) {
+        logApiError(request, HttpStatus.CONFLICT, ex);
         return ResponseEntity
                 .status(HttpStatus.CONFLICT)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -57,10 +101,52 @@ public class ApiExceptionHandler {
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorMessage> methodArgumentNotValidException(MethodArgumentNotValidException ex, HttpServletRequest request, BindingResult result) {
-        log.error("Api Error - ", ex);
+        logApiError(request, HttpStatus.UNPROCESSABLE_ENTITY, ex);
         return ResponseEntity
                 .status(HttpStatus.UNPROCESSABLE_ENTITY)
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(new ErrorMessage(request, HttpStatus.UNPROCESSABLE_ENTITY, "Campo(s) invalido(s)",result));
     }
+
+    @ExceptionHandler(TarifaInvalidaException.class)
+    public ResponseEntity<ErrorMessage> unprocessableEntityException(RuntimeException ex, HttpServletRequest request) {
+        logApiError(request, HttpStatus.UNPROCESSABLE_ENTITY, ex);
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage()));
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorMessage> serviceUnavailableException(RuntimeException ex, HttpServletRequest request) {
+        logApiError(request, HttpStatus.SERVICE_UNAVAILABLE, ex);
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
+    // Todos os erros tratados aqui são respostas esperadas (4xx ou 503 por sobrecarga): uma linha key=value, sem stack trace.
+    // Exceções não tratadas continuam indo para o log de erro do Spring com o stack trace completo.
+    private void logApiError(HttpServletRequest request, HttpStatus status, Exception ex) {
+        long suppressed = apiErrorLog.tryAcquire();
+        if (suppressed >= 0) {
+            log.warn("event=api_error status={} method={} path={} error={} message=\"{}\" suppressed={}",
+                    status.value(), request.getMethod(), request.getRequestURI(),
+                    ex.getClass().getSimpleName(), mensagem(ex), suppressed);
+        }
+    }
+
+    // A mensagem de MethodArgumentNotValidException traz a assinatura do método e todos os códigos de erro;
+    // no log bastam os campos rejeitados
+    private static String mensagem(Exception ex) {
+        if (ex instanceof MethodArgumentNotValidException invalid) {
+            return "campos invalidos: " + invalid.getBindingResult().getFieldErrors().stream()
+                    .map(FieldError::getField)
+                    .distinct()
+                    .collect(Collectors.joining(","));
+        }
+        return ex.getMessage();
+    }
 }
@@ -0,0 +1,126 @@
+package com.example.park_api.resources.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+// Escreve linhas de exportação diretamente no OutputStream da resposta, uma por vez, sem acumular em memória
+public class ExportWriter implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ExportFormat format;
+    private final String[] columns;
+    private final Writer csv;
+    private final JsonGenerator json;
+
+    public ExportWriter(ExportFormat format, OutputStream out, String... columns) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        if (format == ExportFormat.CSV) {
+            this.csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.json = null;
+            writeCsvLine(columns);
+        } else {
+            this.csv = null;
+            this.json = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+            // Cada objeto na sua própria linha (NDJSON)
+            this.json.setRootValueSeparator(null);
+        }
+    }
+
+    // Os valores devem seguir a mesma ordem das colunas informadas no construtor.
+    // Falhas de escrita (ex.: cliente desconectou) são relançadas como UncheckedIOException para interromper o cursor
+    public void writeRow(Object... values) {
+        try {
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(values);
+            } else {
+                writeJsonLine(values);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (csv != null) {
+            csv.flush();
+        } else {
+            json.flush();
+        }
+    }
+
+    private void writeJsonLine(Object[] values) throws IOException {
+        json.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            Object value = values[i];
+            if (value instanceof Long || value instanceof Integer) {
+                json.writeNumberField(columns[i], ((Number) value).longValue());
+            } else if (value instanceof BigDecimal decimal) {
+                json.writeNumberField(columns[i], decimal);
+            } else if (value == null) {
+                json.writeNullField(columns[i]);
+            } else {
+                json.writeStringField(columns[i], value.toString());
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void writeCsvLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            if (values[i] instanceof Number) {
+                csv.write(values[i].toString());
+            } else if (values[i] != null) {
+                writeCsvValue(neutralizeFormula(values[i].toString()));
+            }
+        }
+        csv.write("\r\n");
+    }
+
+    // Texto que começa como uma fórmula (ex.: um nome '=HYPERLINK(...)' cadastrado pelo usuário) seria executado ao abrir
+    // o arquivo em uma planilha: o apóstrofo no início faz a célula ser lida como texto. Números negativos não passam
+    // por aqui, são escritos como estão
+    private static String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    // Aplica as regras de escape do RFC 4180 apenas quando o valor contém separadores, aspas ou quebras de linha
+    private void writeCsvValue(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            csv.write(value);
+            return;
+        }
+        csv.write('"');
+        csv.write(value.replace("\"", "\"\""));
+        csv.write('"');
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.park_api.services;
+
+import com.example.park_api.entities.ClienteHistorico;
+import com.example.park_api.entities.ClienteHistoricoPagina;
+import com.example.park_api.entities.EstacionamentoEvento;
+import com.example.park_api.exception.EntityNotFoundException;
+import com.example.park_api.repositories.ClienteHistoricoPaginaRepository;
+import com.example.park_api.repositories.ClienteHistoricoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Histórico de visitas por cliente: um read model atualizado a cada saída, em vez de uma consulta sobre os eventos.
+// A leitura do resumo e das visitas mais recentes é uma busca por chave (servida pelo cache de segundo nível depois
+// da primeira), então o custo não cresce com a quantidade de visitas do cliente.
+@RequiredArgsConstructor
+@Service
+public class ClienteHistoricoService {
+
+    private final ClienteHistoricoRepository historicoRepository;
+    private final ClienteHistoricoPaginaRepository paginaRepository;
+
+    // Executado na mesma transação que grava os eventos de saída no banco: cada saída entra no histórico uma única
+    // vez, mesmo quando o lote é reenviado após uma falha
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarSaidas(List<EstacionamentoEvento> saidas) {
+        if (saidas.isEmpty()) {
+            return;
+        }
+        Map<String, ClienteHistorico> historicos = new HashMap<>();
+        historicoRepository.findAllById(saidas.stream().map(EstacionamentoEvento::getCpf).distinct().toList())
+                .forEach(historico -> historicos.put(historico.getCpf(), historico));
+        for (EstacionamentoEvento saida : saidas) {
+            ClienteHistorico historico = historicos.computeIfAbsent(saida.getCpf(), ClienteHistoricoService::novo);
+            if (PaginaHistorico.cheia(historico.getPaginaAtual())) {
+                arquivar(historico);
+            }
+            historico.setPaginaAtual(PaginaHistorico.acrescentar(historico.getPaginaAtual(), saida));
+            historico.setVisitas(historico.getVisitas() + 1);
+            if (saida.getValor() != null) {
+                historico.setTotalGasto(historico.getTotalGasto().add(saida.getValor()));
+            }
+            if (historico.getUltimaVisita() == null || saida.getDataHora().isAfter(historico.getUltimaVisita())) {
+                historico.setUltimaVisita(saida.getDataHora());
+            }
+        }
+        historicoRepository.saveAll(historicos.values());
+    }
+
+    @Transactional(readOnly = true)
+    public Resumo buscarResumo(String cpf) {
+        return historicoRepository.findById(cpf)
+                .map(historico -> new Resumo(historico.getVisitas(), historico.getTotalGasto(), historico.getUltimaVisita(),
+                        historico.getPaginasArquivadas() + 1, PaginaHistorico.visitas(historico.getPaginaAtual())))
+                .orElse(new Resumo(0, BigDecimal.ZERO, null, 1, List.of()));
+    }
+
+    // Visitas já encerradas e gravadas do cliente, usadas nos descontos da tarifa
+    @Transactional(readOnly = true)
+    public long contarVisitas(String cpf) {
+        return historicoRepository.findById(cpf).map(ClienteHistorico::getVisitas).orElse(0L);
+    }
+
+    // Página 0 é a atual (as visitas mais recentes); as seguintes voltam no tempo, uma página arquivada por vez
+    @Transactional(readOnly = true)
+    public List<PaginaHistorico.Visita> buscarPagina(String cpf, int pagina) {
+        ClienteHistorico historico = historicoRepository.findById(cpf).orElse(null);
+        if (pagina == 0) {
+            return historico != null ? PaginaHistorico.visitas(historico.getPaginaAtual()) : List.of();
+        }
+        if (historico == null || pagina < 0 || pagina > historico.getPaginasArquivadas()) {
+            throw new EntityNotFoundException(String.format("Página %d do histórico não encontrada", pagina));
+        }
+        return paginaRepository.findByCpfAndNumero(cpf, historico.getPaginasArquivadas() - pagina)
+                .map(arquivada -> PaginaHistorico.visitas(arquivada.getDados()))
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Página %d do histórico não encontrada", pagina)));
+    }
+
+    private void arquivar(ClienteHistorico historico) {
+        ClienteHistoricoPagina arquivada = new ClienteHistoricoPagina();
+        arquivada.setCpf(historico.getCpf());
+        arquivada.setNumero(historico.getPaginasArquivadas());
+        arquivada.setDados(historico.getPaginaAtual());
+        paginaRepository.save(arquivada);
+        historico.setPaginasArquivadas(historico.getPaginasArquivadas() + 1);
+        historico.setPaginaAtual(PaginaHistorico.vazia());
+    }
+
+    private static ClienteHistorico novo(String cpf) {
+        ClienteHistorico historico = new ClienteHistorico();
+        historico.setCpf(cpf);
+        historico.setPaginaAtual(PaginaHistorico.vazia());
+        return historico;
+    }
+
+    // Totais do cliente e as visitas da página atual, da mais recente para a mais antiga
+    public record Resumo(long visitas, BigDecimal totalGasto, LocalDateTime ultimaVisita, int totalPaginas,
+                         List<PaginaHistorico.Visita> recentes) {
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.park_api.services;
+
+import com.example.park_api.entities.User;
+import com.example.park_api.repositories.ClienteRepository;
+import com.example.park_api.repositories.UserRepository;
+import com.example.park_api.repositories.projection.UserProjection;
+import com.example.park_api.resources.dto.ClienteImportDTO;
+import com.example.park_api.resources.dto.ClienteImportResponseDTO;
+import com.example.park_api.resources.dto.ClienteImportResultDTO;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Importação de clientes em lote.
+// As linhas são validadas e conferidas contra o banco com consultas em conjunto (uma por bloco, não uma por linha)
+// e as válidas são inseridas via JDBC em lotes, cada lote na sua própria transação.
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ClienteImportService {
+
+    private static final String INSERT_SQL = "insert into customers " +
+            "(nome, cpf, id_usuario, data_criacao, data_modificacao, criado_por, modificado_por) " +
+            "values (:nome, :cpf, :idUsuario, :dataCriacao, :dataCriacao, :criadoPor, :criadoPor)";
+
+    // Limite de parâmetros por cláusula IN nas consultas de pré-validação
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    private final ClienteRepository clienteRepository;
+    private final UserRepository userRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final AuditorAware<String> auditorAware;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // Quantidade de linhas enviadas ao banco em cada lote JDBC
+    @Value("${customers.import.batch-size:500}")
+    private int batchSize;
+
+    public ClienteImportResponseDTO importar(List<ClienteImportDTO> linhas) {
+        ClienteImportResultDTO[] resultados = new ClienteImportResultDTO[linhas.size()];
+
+        validar(linhas, resultados);
+        rejeitarDuplicadosNoArquivo(linhas, resultados);
+        rejeitarCpfsExistentes(linhas, resultados);
+        Map<String, Long> usuarios = resolverUsuarios(linhas, resultados);
+        if (inserir(linhas, usuarios, resultados) > 0) {
+            // Os inserts via JDBC não passam pelo Hibernate, então as consultas em cache sobre customers
+            // (ex.: cliente por id de usuário) são descartadas manualmente
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        }
+
+        ClienteImportResponseDTO response = new ClienteImportResponseDTO();
+        response.setTotal(linhas.size());
+        response.setLinhas(Arrays.asList(resultados));
+        for (ClienteImportResultDTO resultado : resultados) {
+            if (resultado.getStatus() == ClienteImportResultDTO.Status.CRIADO) {
+                response.setCriados(response.getCriados() + 1);
+            } else {
+                response.setRejeitados(response.getRejeitados() + 1);
+            }
+        }
+        return response;
+    }
+
+    private void validar(List<ClienteImportDTO> linhas, ClienteImportResultDTO[] resultados) {
+        for (int i = 0; i < linhas.size(); i++) {
+            ClienteImportDTO linha = linhas.get(i);
+            if (linha == null) {
+                resultados[i] = rejeitado(i, null, "Linha vazia");
+                continue;
+            }
+            Set<ConstraintViolation<ClienteImportDTO>> violacoes = validator.validate(linha);
+            if (!violacoes.isEmpty()) {
+                String mensagem = violacoes.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                resultados[i] = rejeitado(i, linha.getCpf(), mensagem);
+            }
+        }
+    }
+
+    // Só a primeira ocorrência de um CPF ou de um usuário no arquivo é importada
+    private void rejeitarDuplicadosNoArquivo(List<ClienteImportDTO> linhas, ClienteImportResultDTO[] resultados) {
+        Set<String> cpfs = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        for (int i = 0; i < linhas.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            ClienteImportDTO linha = linhas.get(i);
+            if (!cpfs.add(linha.getCpf())) {
+                resultados[i] = rejeitado(i, linha.getCpf(), "CPF repetido no arquivo");
+            } else if (!usernames.add(linha.getUsername())) {
+                resultados[i] = rejeitado(i, linha.getCpf(), "Usuário repetido no arquivo");
+            }
+        }
+    }
+
+    private void rejeitarCpfsExistentes(List<ClienteImportDTO> linhas, ClienteImportResultDTO[] resultados) {
+        Set<String> existentes = consultarEmBlocos(pendentes(linhas, resultados, ClienteImportDTO::getCpf),
+                clienteRepository::findCpfsIn);
+        for (int i = 0; i < linhas.size(); i++) {
+            if (resultados[i] == null && existentes.contains(linhas.get(i).getCpf())) {
+                resultados[i] = rejeitado(i, linhas.get(i).getCpf(),
+                        String.format("CPF '%s' não pode ser cadastrado, já existe no sistema", linhas.get(i).getCpf()));
+            }
+        }
+    }
+
+    // Retorna o id de cada usuário apto a receber um cliente: existente, com Role CLIENTE e ainda sem cliente vinculado
+    private Map<String, Long> resolverUsuarios(List<ClienteImportDTO> linhas, ClienteImportResultDTO[] resultados) {
+        Map<String, UserProjection> encontrados = new HashMap<>();
+        for (List<String> bloco : blocos(pendentes(linhas, resultados, ClienteImportDTO::getUsername))) {
+            userRepository.findProjectionsByUsernameIn(bloco).forEach(u -> encontrados.put(u.getUsername(), u));
+        }
+        Set<Long> comCliente = consultarEmBlocos(
+                encontrados.values().stream().map(UserProjection::getId).toList(),
+                clienteRepository::findUsuarioIdsIn);
+
+        Map<String, Long> usuarios = new HashMap<>();
+        for (int i = 0; i < linhas.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            ClienteImportDTO linha = linhas.get(i);
+            UserProjection usuario = encontrados.get(linha.getUsername());
+            if (usuario == null) {
+                resultados[i] = rejeitado(i, linha.getCpf(), String.format("Usuário '%s' não encontrado", linha.getUsername()));
+            } else if (usuario.getRole() != User.Role.ROLE_CLIENTE) {
+                resultados[i] = rejeitado(i, linha.getCpf(), String.format("Usuário '%s' não possui Role CLIENTE", linha.getUsername()));
+            } else if (comCliente.contains(usuario.getId())) {
+                resultados[i] = rejeitado(i, linha.getCpf(), String.format("Usuário '%s' já possui cliente cadastrado", linha.getUsername()));
+            } else {
+                usuarios.put(linha.getUsername(), usuario.getId());
+            }
+        }
+        return usuarios;
+    }
+
+    // Retorna a quantidade de clientes gravados
+    private int inserir(List<ClienteImportDTO> linhas, Map<String, Long> usuarios, ClienteImportResultDTO[] resultados) {
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+        LocalDateTime agora = LocalDateTime.now();
+        int gravados = 0;
+
+        List<Integer> pendentes = new ArrayList<>();
+        for (int i = 0; i < linhas.size(); i++) {
+            if (resultados[i] == null) {
+                pendentes.add(i);
+            }
+        }
+        for (int inicio = 0; inicio < pendentes.size(); inicio += batchSize) {
+            List<Integer> lote = pendentes.subList(inicio, Math.min(inicio + batchSize, pendentes.size()));
+            SqlParameterSource[] parametros = lote.stream()
+                    .map(i -> parametros(linhas.get(i), usuarios, agora, auditor))
+                    .toArray(SqlParameterSource[]::new);
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, parametros));
+                lote.forEach(i -> resultados[i] = criado(i, linhas.get(i).getCpf()));
+                gravados += lote.size();
+            } catch (DataAccessException ex) {
+                // Um cadastro concorrente pode violar a unicidade depois da pré-validação;
+                // o lote inteiro foi desfeito, então suas linhas são reenviadas uma a uma para isolar a falha
+                log.warn("Lote de importação de clientes falhou, reenviando {} linhas individualmente: {}", lote.size(), ex.getMessage());
+                for (int j = 0; j < lote.size(); j++) {
+                    int i = lote.get(j);
+                    try {
+                        jdbcTemplate.update(INSERT_SQL, parametros[j]);
+                        resultados[i] = criado(i, linhas.get(i).getCpf());
+                        gravados++;
+                    } catch (DuplicateKeyException dup) {
+                        resultados[i] = rejeitado(i, linhas.get(i).getCpf(), "CPF ou usuário já cadastrado no sistema");
+                    } catch (DataAccessException err) {
+                        resultados[i] = rejeitado(i, linhas.get(i).getCpf(), "Falha ao gravar o cliente");
+                    }
+                }
+            }
+        }
+        return gravados;
+    }
+
+    private static SqlParameterSource parametros(ClienteImportDTO linha, Map<String, Long> usuarios,
+                                                 LocalDateTime agora, String auditor) {
+        return new MapSqlParameterSource()
+                .addValue("nome", linha.getNome())
+                .addValue("cpf", linha.getCpf())
+                .addValue("idUsuario", usuarios.get(linha.getUsername()))
+                .addValue("dataCriacao", agora)
+                .addValue("criadoPor", auditor);
+    }
+
+    private static List<String> pendentes(List<ClienteImportDTO> linhas, ClienteImportResultDTO[] resultados,
+                                          Function<ClienteImportDTO, String> campo) {
+        List<String> valores = new ArrayList<>();
+        for (int i = 0; i < linhas.size(); i++) {
+            if (resultados[i] == null) {
+                valores.add(campo.apply(linhas.get(i)));
+            }
+        }
+        return valores;
+    }
+
+    private static <T> Set<T> consultarEmBlocos(List<T> valores, Function<List<T>, List<T>> consulta) {
+        Set<T> encontrados = new HashSet<>();
+        for (List<T> bloco : blocos(valores)) {
+            encontrados.addAll(consulta.apply(bloco));
+        }
+        return encontrados;
+    }
+
+    private static <T> List<List<T>> blocos(List<T> valores) {
+        List<List<T>> blocos = new ArrayList<>();
+        for (int inicio = 0; inicio < valores.size(); inicio += IN_CHUNK_SIZE) {
+            blocos.add(valores.subList(inicio, Math.min(inicio + IN_CHUNK_SIZE, valores.size())));
+        }
+        return blocos;
+    }
+
+    // As linhas do relatório são numeradas a partir de 1, na ordem em que foram enviadas
+    private static ClienteImportResultDTO criado(int index, String cpf) {
+        return new ClienteImportResultDTO(index + 1, cpf, ClienteImportResultDTO.Status.CRIADO, null);
+    }
+
+    private static ClienteImportResultDTO rejeitado(int index, String cpf, String mensagem) {
+        return new ClienteImportResultDTO(index + 1, cpf, ClienteImportResultDTO.Status.REJEITADO, mensagem);
+    }
+}
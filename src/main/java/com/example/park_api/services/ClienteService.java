@@ -4,19 +4,36 @@ import com.example.park_api.entities.Cliente;
 import com.example.park_api.exception.CpfUniqueViolationException;
 import com.example.park_api.repositories.ClienteRepository;
 import com.example.park_api.repositories.projection.ClienteProjection;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 @RequiredArgsConstructor
 @Service
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
+    private final EntityManager entityManager;
+
+    // Quantidade de linhas exportadas entre cada limpeza do contexto de persistência
+    private static final int EXPORT_BATCH_SIZE = 1000;
+
+    // Total de clientes atualizado periodicamente, usado no modo de total aproximado (-1 = ainda não calculado)
+    private final AtomicLong totalAproximado = new AtomicLong(-1);
 
     @Transactional
     public Cliente salvar(Cliente cliente) {
@@ -41,8 +58,74 @@ public class ClienteService {
         return clienteRepository.findAllPageable(pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<ClienteProjection> buscarTodosSemTotal(Pageable pageable) {
+        return clienteRepository.findAllSliced(pageable);
+    }
+
+    // Página com totalElements vindo do contador em cache, sem COUNT por requisição
+    @Transactional(readOnly = true)
+    public Page<ClienteProjection> buscarTodosComTotalAproximado(Pageable pageable) {
+        Slice<ClienteProjection> clientes = clienteRepository.findAllSliced(pageable);
+        long total = pageable.getOffset() + clientes.getNumberOfElements();
+        if (clientes.hasNext()) {
+            // O total em cache pode estar defasado, mas nunca é menor do que o já visto nesta página
+            long aproximado = totalAproximado.get();
+            if (aproximado < 0) {
+                aproximado = contarClientes();
+            }
+            total = Math.max(aproximado, total + 1);
+        } else if (!clientes.hasContent() && pageable.getOffset() > 0) {
+            // Página depois da última: o offset não diz quantos clientes existem, então usa a contagem exata
+            total = contarClientes();
+        }
+        return new PageImpl<>(clientes.getContent(), pageable, total);
+    }
+
+    @Scheduled(fixedDelayString = "${customers.count.refresh-ms:60000}")
+    @Transactional(readOnly = true)
+    public void atualizarTotalAproximado() {
+        contarClientes();
+    }
+
+    private long contarClientes() {
+        long total = clienteRepository.count();
+        totalAproximado.set(total);
+        return total;
+    }
+
+    // Retorna os próximos clientes na ordem (nome, id) a partir da posição informada; sem posição, começa do início
+    @Transactional(readOnly = true)
+    public Slice<ClienteProjection> buscarTodosApos(String nome, Long id, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        if (nome == null || id == null) {
+            return clienteRepository.findFirstSlice(limit);
+        }
+        return clienteRepository.findSliceAfter(nome, id, limit);
+    }
+
+    // Resolvido pelo natural id (cpf): com o cache de segundo nível aquecido não executa SQL
+    @Transactional(readOnly = true)
+    public boolean existePorCpf(String cpf) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Cliente.class).loadOptional(cpf).isPresent();
+    }
+
     @Transactional(readOnly = true)
     public Cliente buscarPorUsuarioId(Long id) {
         return clienteRepository.findByUsuarioId(id);
     }
+
+    // Percorre todos os clientes em um cursor somente leitura, entregando uma linha por vez ao consumidor
+    @Transactional(readOnly = true)
+    public void exportar(Consumer<ClienteProjection> consumer) {
+        try (Stream<ClienteProjection> clientes = clienteRepository.streamAll()) {
+            int[] count = {0};
+            clientes.forEach(cliente -> {
+                consumer.accept(cliente);
+                if (++count[0] % EXPORT_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
+    }
 }
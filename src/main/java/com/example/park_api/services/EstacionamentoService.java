@@ -0,0 +1,310 @@
+package com.example.park_api.services;
+
+import com.example.park_api.entities.EstacionamentoEvento;
+import com.example.park_api.entities.Vaga;
+import com.example.park_api.exception.EntityNotFoundException;
+import com.example.park_api.exception.EstacionamentoEmAbertoException;
+import com.example.park_api.journal.EstacionamentoJournal;
+import com.example.park_api.repositories.EstacionamentoEventoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Check-in e check-out dos clientes.
+// O portão recebe a resposta assim que o evento está no journal local (fsync em grupo); gravarPendentes() leva os
+// eventos ao banco em lotes JDBC, fora do caminho da requisição. As entradas em aberto ficam em memória para que o
+// check-out não dependa de o evento de entrada já ter chegado ao banco.
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class EstacionamentoService implements DisposableBean {
+
+    private static final String INSERT_SQL = "insert into estacionamento_eventos " +
+            "(recibo, tipo, cpf, id_vaga, codigo_vaga, zona, data_hora, data_entrada, valor, versao_vaga) " +
+            "values (:recibo, :tipo, :cpf, :vagaId, :codigoVaga, :zona, :dataHora, :dataEntrada, :valor, :versaoVaga)";
+
+    private final EstacionamentoJournal journal;
+    private final EstacionamentoEventoRepository eventoRepository;
+    private final ClienteService clienteService;
+    private final ClienteHistoricoService historicoService;
+    private final TarifaService tarifaService;
+    private final VagaService vagaService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Tempo máximo de espera pelo fsync do journal antes de responder 503
+    @Value("${estacionamento.journal.fsync-timeout:2s}")
+    private Duration fsyncTimeout;
+
+    // Eventos enviados ao banco em cada lote JDBC
+    @Value("${estacionamento.flush.batch-size:500}")
+    private int batchSize;
+
+    // Intervalo entre as rodadas de envio ao banco
+    @Value("${estacionamento.flush-ms:200}")
+    private long flushMs;
+
+    // O envio ao banco roda em uma thread própria, não no agendador do Spring: esvaziar um backlog grande (ou esperar
+    // o banco voltar) não atrasa as tarefas @Scheduled que dividem a thread única dele, como a sincronização da
+    // revogação de tokens e a rotação das chaves JWT
+    private final ScheduledExecutorService envio = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "estacionamento-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Exclui o envio e a reconstrução das entradas em aberto. ReentrantLock em vez de synchronized: com virtual
+    // threads, esperar por ele ou fazer I/O JDBC dentro dele não prende a carrier thread
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Entradas sem saída: recibo -> evento de entrada, e CPF -> recibo (um cliente não entra duas vezes)
+    private final Map<String, EstacionamentoEvento> abertos = new ConcurrentHashMap<>();
+    private final Map<String, String> abertosPorCpf = new ConcurrentHashMap<>();
+    // Recibos encerrados nesta instância cuja saída ainda não chegou ao banco
+    private final Set<String> encerrados = ConcurrentHashMap.newKeySet();
+
+    public Ticket checkIn(String cpf, String zona) {
+        if (!clienteService.existePorCpf(cpf)) {
+            throw new EntityNotFoundException(String.format("Cliente com CPF '%s' não encontrado no sistema", cpf));
+        }
+        String recibo = UUID.randomUUID().toString().replace("-", "");
+        if (abertosPorCpf.putIfAbsent(cpf, recibo) != null) {
+            throw new EstacionamentoEmAbertoException(String.format("Cliente com CPF '%s' já possui uma entrada sem saída", cpf));
+        }
+        Vaga vaga;
+        try {
+            vaga = vagaService.ocupar(zona, cpf);
+        } catch (RuntimeException ex) {
+            abertosPorCpf.remove(cpf, recibo);
+            throw ex;
+        }
+        EstacionamentoEvento entrada = evento(recibo, EstacionamentoEvento.Tipo.ENTRADA, cpf,
+                vaga.getId(), vaga.getCodigo(), vaga.getZona());
+        entrada.setVersaoVaga(vaga.getVersao());
+        try {
+            journal.gravar(entrada, fsyncTimeout);
+        } catch (RuntimeException ex) {
+            abertosPorCpf.remove(cpf, recibo);
+            vagaService.liberar(vaga.getId(), vaga.getZona(), vaga.getVersao());
+            throw ex;
+        }
+        abertos.put(recibo, entrada);
+        return new Ticket(entrada, null);
+    }
+
+    public Ticket checkOut(String recibo) {
+        // Marca o recibo antes de retirá-lo: dois check-outs simultâneos do mesmo recibo não liberam a vaga duas vezes
+        if (!encerrados.add(recibo)) {
+            throw reciboNaoEncontrado(recibo);
+        }
+        EstacionamentoEvento entrada = abertos.remove(recibo);
+        boolean local = entrada != null;
+        if (!local) {
+            // Entrada registrada por outra instância (ou antes de um reinício já gravada no banco)
+            // Um check-out deste recibo aceito por outra instância pode ainda não ter chegado ao banco: a vaga fora da
+            // versão ocupada na entrada mostra que ele já foi encerrado
+            entrada = eventoRepository.findEntradaAberta(recibo).orElse(null);
+            if (entrada == null || !vagaService.ocupadaNaVersao(entrada.getVagaId(), entrada.getVersaoVaga())) {
+                encerrados.remove(recibo);
+                throw reciboNaoEncontrado(recibo);
+            }
+        }
+        EstacionamentoEvento saida = evento(recibo, EstacionamentoEvento.Tipo.SAIDA, entrada.getCpf(),
+                entrada.getVagaId(), entrada.getCodigoVaga(), entrada.getZona());
+        saida.setDataEntrada(entrada.getDataHora());
+        saida.setValor(tarifaService.calcular(entrada.getDataHora(), saida.getDataHora(),
+                historicoService.contarVisitas(entrada.getCpf())));
+        try {
+            journal.gravar(saida, fsyncTimeout);
+        } catch (RuntimeException ex) {
+            if (local) {
+                abertos.put(recibo, entrada);
+            }
+            encerrados.remove(recibo);
+            throw ex;
+        }
+        abertosPorCpf.remove(entrada.getCpf(), recibo);
+        try {
+            if (!vagaService.liberar(entrada.getVagaId(), entrada.getZona(), entrada.getVersaoVaga())) {
+                // Encerrado em paralelo por outra instância: a vaga não é liberada de novo e a saída repetida é
+                // descartada pela chave (recibo, tipo) ao chegar ao banco
+                log.warn("Recibo {} encerrado também por outra instância; vaga id={} mantida", recibo, entrada.getVagaId());
+            }
+        } catch (RuntimeException ex) {
+            // A saída já está registrada: o check-out vale e a vaga é liberada manualmente (POST api/v1/vagas/{id}/liberar)
+            log.warn("Saída registrada sem liberar a vaga id={} do recibo {}: {}", entrada.getVagaId(), recibo, ex.getMessage());
+        }
+        return new Ticket(entrada, saida);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarEnvio() {
+        envio.scheduleWithFixedDelay(() -> {
+            try {
+                gravarPendentes();
+            } catch (RuntimeException ex) {
+                // Uma exceção não tratada cancelaria as próximas rodadas do executor
+                log.error("Falha no envio de eventos de estacionamento ao banco", ex);
+            }
+        }, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        envio.shutdown();
+        envio.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // Estágio de group commit para o banco: leva os eventos já duráveis no journal em lotes JDBC, um lote por
+    // transação, e só então avança o checkpoint. Em caso de falha os eventos continuam pendentes para a próxima rodada
+    public void gravarPendentes() {
+        lock.lock();
+        try {
+            List<EstacionamentoJournal.Registro> lote;
+            while (!(lote = journal.pendentes(batchSize)).isEmpty()) {
+                try {
+                    inserir(lote);
+                } catch (DataAccessException ex) {
+                    log.warn("Falha ao gravar {} eventos de estacionamento no banco, nova tentativa na próxima rodada: {}",
+                            lote.size(), ex.getMessage());
+                    return;
+                }
+                journal.confirmar(lote.size());
+                for (EstacionamentoJournal.Registro registro : lote) {
+                    if (registro.evento().getTipo() == EstacionamentoEvento.Tipo.SAIDA) {
+                        encerrados.remove(registro.evento().getRecibo());
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reconstrói as entradas em aberto: as do banco mais os eventos do journal que ainda não chegaram a ele
+    @EventListener(ApplicationReadyEvent.class)
+    public void recarregarAbertos() {
+        lock.lock();
+        try {
+            recarregarAbertosLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recarregarAbertosLocked() {
+        abertos.clear();
+        abertosPorCpf.clear();
+        encerrados.clear();
+        eventoRepository.findEntradasAbertas().forEach(this::abrir);
+        for (EstacionamentoJournal.Registro registro : journal.pendentes(Integer.MAX_VALUE)) {
+            EstacionamentoEvento evento = registro.evento();
+            if (evento.getTipo() == EstacionamentoEvento.Tipo.ENTRADA) {
+                abrir(evento);
+            } else {
+                EstacionamentoEvento entrada = abertos.remove(evento.getRecibo());
+                if (entrada != null) {
+                    abertosPorCpf.remove(entrada.getCpf(), evento.getRecibo());
+                }
+                encerrados.add(evento.getRecibo());
+            }
+        }
+    }
+
+    private void abrir(EstacionamentoEvento entrada) {
+        abertos.put(entrada.getRecibo(), entrada);
+        abertosPorCpf.put(entrada.getCpf(), entrada.getRecibo());
+    }
+
+    // Um evento repetido (replay do journal após uma queda) viola (recibo, tipo) e desfaz o lote inteiro;
+    // nesse caso os eventos são reenviados um a um e os já gravados são ignorados. As saídas atualizam o histórico
+    // dos clientes na mesma transação do insert, então só entram no histórico quando o evento é gravado de fato
+    private void inserir(List<EstacionamentoJournal.Registro> lote) {
+        List<EstacionamentoEvento> eventos = lote.stream().map(EstacionamentoJournal.Registro::evento).toList();
+        SqlParameterSource[] parametros = eventos.stream()
+                .map(EstacionamentoService::parametros)
+                .toArray(SqlParameterSource[]::new);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, parametros);
+                historicoService.registrarSaidas(saidas(eventos));
+            });
+        } catch (DuplicateKeyException ex) {
+            for (int i = 0; i < eventos.size(); i++) {
+                EstacionamentoEvento evento = eventos.get(i);
+                SqlParameterSource parametro = parametros[i];
+                transactionTemplate.executeWithoutResult(status -> {
+                    try {
+                        jdbcTemplate.update(INSERT_SQL, parametro);
+                    } catch (DuplicateKeyException dup) {
+                        log.debug("Evento de estacionamento já gravado: recibo={} tipo={}", evento.getRecibo(), evento.getTipo());
+                        return;
+                    }
+                    historicoService.registrarSaidas(saidas(List.of(evento)));
+                });
+            }
+        }
+    }
+
+    private static List<EstacionamentoEvento> saidas(List<EstacionamentoEvento> eventos) {
+        return eventos.stream().filter(evento -> evento.getTipo() == EstacionamentoEvento.Tipo.SAIDA).toList();
+    }
+
+    private static SqlParameterSource parametros(EstacionamentoEvento evento) {
+        return new MapSqlParameterSource()
+                .addValue("recibo", evento.getRecibo())
+                .addValue("tipo", evento.getTipo().name())
+                .addValue("cpf", evento.getCpf())
+                .addValue("vagaId", evento.getVagaId())
+                .addValue("codigoVaga", evento.getCodigoVaga())
+                .addValue("zona", evento.getZona())
+                .addValue("dataHora", evento.getDataHora())
+                .addValue("dataEntrada", evento.getDataEntrada())
+                .addValue("valor", evento.getValor())
+                .addValue("versaoVaga", evento.getVersaoVaga());
+    }
+
+    private static EstacionamentoEvento evento(String recibo, EstacionamentoEvento.Tipo tipo, String cpf,
+                                               Long vagaId, String codigoVaga, String zona) {
+        EstacionamentoEvento evento = new EstacionamentoEvento();
+        evento.setRecibo(recibo);
+        evento.setTipo(tipo);
+        evento.setCpf(cpf);
+        evento.setVagaId(vagaId);
+        evento.setCodigoVaga(codigoVaga);
+        evento.setZona(zona);
+        // Milissegundos: a mesma precisão do journal e da coluna datetime(3)
+        evento.setDataHora(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        return evento;
+    }
+
+    private static EntityNotFoundException reciboNaoEncontrado(String recibo) {
+        return new EntityNotFoundException(String.format("Recibo '%s' não encontrado ou já encerrado", recibo));
+    }
+
+    // Entrada e, depois do check-out, a saída correspondente
+    public record Ticket(EstacionamentoEvento entrada, EstacionamentoEvento saida) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.park_api.services;
+
+import com.example.park_api.entities.Vaga;
+import com.example.park_api.repositories.projection.VagaProjection;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Vagas ocupadas de cada zona, mantidas em contadores LongAdder atualizados a cada ocupação e liberação gravada no
+// banco (check-in, check-out e as operações manuais de vagas). Portões concorrentes incrementam células diferentes do
+// contador em vez de disputar uma mesma variável; só a leitura soma as células.
+// A contagem é refeita a partir do banco junto com o índice de vagas, o que corrige as alterações feitas por outras
+// instâncias. A recontagem só vale se nenhuma alteração desta instância cruzou a leitura do banco: senão ela poderia
+// apagar uma ocupação gravada depois da leitura, ou contar duas vezes uma gravada antes dela.
+@Component
+public class OcupacaoPorZona {
+
+    private final Map<String, LongAdder> ocupadas = new ConcurrentHashMap<>();
+
+    // Total de vagas cadastradas por zona, trocado por inteiro a cada recarga
+    private volatile Map<String, Integer> vagas = Map.of();
+
+    // Alterações de status iniciadas e concluídas, para a recontagem saber se alguma estava em andamento
+    private final LongAdder iniciadas = new LongAdder();
+    private final LongAdder concluidas = new LongAdder();
+
+    public void ocupar(String zona) {
+        contador(zona).increment();
+    }
+
+    public void liberar(String zona) {
+        contador(zona).decrement();
+    }
+
+    // Marca uma alteração de status de vaga em andamento: chamado antes do UPDATE e concluído (sempre, em finally) depois
+    // de ocupar ou liberar o contador
+    public void iniciarAlteracao() {
+        iniciadas.increment();
+    }
+
+    public void concluirAlteracao() {
+        concluidas.increment();
+    }
+
+    // Abre uma recontagem, antes da leitura das vagas no banco: guarda o valor dos contadores com nenhuma alteração em
+    // andamento. null se havia alteração em andamento (o UPDATE dela pode ou não estar na leitura)
+    public Recontagem iniciarRecontagem() {
+        // concluídas antes de iniciadas: se as duas somas batem, nenhuma alteração estava entre o UPDATE e o contador
+        long concluidasAntes = concluidas.sum();
+        long iniciadasAntes = iniciadas.sum();
+        if (iniciadasAntes != concluidasAntes) {
+            return null;
+        }
+        Map<String, Long> valores = new HashMap<>();
+        ocupadas.forEach((zona, contador) -> valores.put(zona, contador.sum()));
+        return new Recontagem(iniciadasAntes, valores);
+    }
+
+    // Recontagem a partir do estado das vagas lido no banco depois de iniciarRecontagem. O total de vagas por zona é
+    // sempre trocado; os contadores só são corrigidos se nenhuma alteração começou desde a abertura (false caso
+    // contrário, sem mexer neles). Cada contador recebe a diferença entre o banco e o valor guardado na abertura, não o
+    // valor atual: uma alteração iniciada depois desta verificação tem o UPDATE posterior à leitura e o seu incremento,
+    // feito antes ou depois da correção, é preservado
+    public synchronized boolean recarregar(Recontagem recontagem, List<? extends VagaProjection> estados) {
+        Map<String, Integer> total = new HashMap<>();
+        Map<String, Long> ocupadasNoBanco = new HashMap<>();
+        for (VagaProjection vaga : estados) {
+            total.merge(vaga.getZona(), 1, Integer::sum);
+            ocupadasNoBanco.merge(vaga.getZona(), vaga.getStatus() == Vaga.Status.OCUPADA ? 1L : 0L, Long::sum);
+        }
+        vagas = Map.copyOf(total);
+        if (recontagem == null || iniciadas.sum() != recontagem.iniciadas()) {
+            return false;
+        }
+        recontagem.valores().forEach((zona, valor) -> {
+            if (!ocupadasNoBanco.containsKey(zona)) {
+                contador(zona).add(-valor);
+            }
+        });
+        ocupadasNoBanco.forEach((zona, quantidade) ->
+                contador(zona).add(quantidade - recontagem.valores().getOrDefault(zona, 0L)));
+        return true;
+    }
+
+    // Retrato de todas as zonas, em ordem de nome
+    public List<Zona> consultar() {
+        Map<String, Integer> total = vagas;
+        SortedSet<String> nomes = new TreeSet<>(total.keySet());
+        ocupadas.forEach((zona, contador) -> {
+            if (contador.sum() != 0) {
+                nomes.add(zona);
+            }
+        });
+        List<Zona> zonas = new ArrayList<>(nomes.size());
+        for (String nome : nomes) {
+            LongAdder contador = ocupadas.get(nome);
+            zonas.add(new Zona(nome, total.getOrDefault(nome, 0), contador != null ? contador.sum() : 0));
+        }
+        return zonas;
+    }
+
+    private LongAdder contador(String zona) {
+        // get antes do computeIfAbsent: no caminho comum a zona já existe e a leitura não bloqueia o bin do mapa
+        LongAdder contador = ocupadas.get(zona);
+        return contador != null ? contador : ocupadas.computeIfAbsent(zona, z -> new LongAdder());
+    }
+
+    public record Zona(String zona, int vagas, long ocupadas) {
+    }
+
+    public record Recontagem(long iniciadas, Map<String, Long> valores) {
+    }
+}
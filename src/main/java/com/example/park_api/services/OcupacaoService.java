@@ -0,0 +1,91 @@
+package com.example.park_api.services;
+
+import com.example.park_api.resources.dto.mapper.VagaMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+// Ocupação por zona para os painéis de operação.
+// Todos os assinantes do stream compartilham um único fluxo: a cada tick (no timer do Reactor) os contadores são
+// somados uma vez e, se o retrato mudou, o evento SSE é serializado uma vez e entregue a todos. Sem mudança, só um
+// heartbeat periódico, que também detecta conexões encerradas pelo cliente. O Flux de cada assinante é escrito pelo
+// handler reativo do Spring MVC, que pede um evento por vez e envia cada um no executor das requisições assíncronas
+// (SpringMvcAsyncConfig): um painel que parou de ler prende apenas o próprio envio e, enquanto isso, o
+// onBackpressureLatest guarda só o retrato mais recente para ele.
+// O handler abre o stream sem timeout, independente do timeout padrão das requisições assíncronas (com milhares de
+// painéis, um corte periódico viraria uma onda de reconexões); ocupacao.stream.timeout (0 = sem limite) encerra o
+// stream depois do tempo configurado.
+@Service
+public class OcupacaoService {
+
+    private final OcupacaoPorZona ocupacaoPorZona;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final Flux<ServerSentEvent<String>> atualizacoes;
+
+    public OcupacaoService(OcupacaoPorZona ocupacaoPorZona, ObjectMapper objectMapper,
+                           @Value("${ocupacao.stream.tick:1s}") Duration tick,
+                           @Value("${ocupacao.stream.heartbeat:15s}") Duration heartbeat,
+                           @Value("${ocupacao.stream.timeout:0}") Duration timeout) {
+        this.ocupacaoPorZona = ocupacaoPorZona;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        long ticksPorHeartbeat = Math.max(1, heartbeat.toMillis() / tick.toMillis());
+        // O fluxo começa com o primeiro assinante e para quando o último sai; quem chega no meio recebe o último
+        // retrato emitido na hora, sem esperar por uma mudança
+        this.atualizacoes = Flux.defer(() -> {
+                    Coalescencia coalescencia = new Coalescencia(ticksPorHeartbeat);
+                    return Flux.interval(Duration.ZERO, tick)
+                            .onBackpressureDrop()
+                            .map(t -> ocupacaoPorZona.consultar())
+                            .filter(coalescencia::emitir)
+                            .map(zonas -> ServerSentEvent.builder(serializar(zonas)).event("ocupacao").build());
+                })
+                .replay(1)
+                .refCount();
+    }
+
+    public List<OcupacaoPorZona.Zona> buscarOcupacao() {
+        return ocupacaoPorZona.consultar();
+    }
+
+    public Flux<ServerSentEvent<String>> acompanharOcupacao() {
+        Flux<ServerSentEvent<String>> eventos = atualizacoes.onBackpressureLatest();
+        return timeout.isZero() ? eventos : eventos.take(timeout);
+    }
+
+    private String serializar(List<OcupacaoPorZona.Zona> zonas) {
+        try {
+            return objectMapper.writeValueAsString(VagaMapper.toOcupacaoDto(zonas));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Falha ao serializar a ocupação por zona", ex);
+        }
+    }
+
+    // Estado do fluxo compartilhado, lido e alterado apenas pela thread do tick
+    private static final class Coalescencia {
+
+        private final long ticksPorHeartbeat;
+        private List<OcupacaoPorZona.Zona> anterior;
+        private long ticksSemEmitir;
+
+        Coalescencia(long ticksPorHeartbeat) {
+            this.ticksPorHeartbeat = ticksPorHeartbeat;
+        }
+
+        boolean emitir(List<OcupacaoPorZona.Zona> atual) {
+            if (atual.equals(anterior) && ++ticksSemEmitir < ticksPorHeartbeat) {
+                return false;
+            }
+            anterior = atual;
+            ticksSemEmitir = 0;
+            return true;
+        }
+    }
+}
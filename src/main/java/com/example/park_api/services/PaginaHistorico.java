@@ -0,0 +1,105 @@
+package com.example.park_api.services;
+
+import com.example.park_api.entities.EstacionamentoEvento;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Página do histórico de visitas de um cliente em layout colunar:
+// [quantidade: 1 byte][saídas: long x n][durações: int x n][valores: int x n][códigos das vagas: 10 bytes x n]
+// Cada coluna guarda só as visitas existentes (26 bytes por visita), sem nomes de campo nem cabeçalhos de objeto,
+// e a página inteira cabe em uma coluna varbinary lida junto com o resumo do cliente.
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PaginaHistorico {
+
+    public static final int CAPACIDADE = 64;
+
+    private static final int BYTES_CODIGO = 10;
+    private static final int BYTES_POR_VISITA = Long.BYTES + Integer.BYTES + Integer.BYTES + BYTES_CODIGO;
+    // Saída sem valor cobrado (nenhuma tarifa cadastrada)
+    private static final int SEM_VALOR = -1;
+
+    public static byte[] vazia() {
+        return new byte[]{0};
+    }
+
+    public static int quantidade(byte[] pagina) {
+        return pagina[0];
+    }
+
+    public static boolean cheia(byte[] pagina) {
+        return quantidade(pagina) == CAPACIDADE;
+    }
+
+    // Nova página com a visita da saída no fim; as colunas são regravadas com um deslocamento a mais cada
+    public static byte[] acrescentar(byte[] pagina, EstacionamentoEvento saida) {
+        int n = quantidade(pagina);
+        if (n == CAPACIDADE) {
+            throw new IllegalStateException("Página do histórico cheia");
+        }
+        ByteBuffer destino = ByteBuffer.allocate(1 + (n + 1) * BYTES_POR_VISITA);
+        destino.put((byte) (n + 1));
+
+        destino.put(pagina, 1, n * Long.BYTES);
+        destino.putLong(epochMilli(saida.getDataHora()));
+        destino.put(pagina, 1 + n * Long.BYTES, n * Integer.BYTES);
+        destino.putInt((int) Duration.between(saida.getDataEntrada(), saida.getDataHora()).toSeconds());
+        destino.put(pagina, 1 + n * (Long.BYTES + Integer.BYTES), n * Integer.BYTES);
+        destino.putInt(saida.getValor() == null ? SEM_VALOR : saida.getValor().movePointRight(2).intValueExact());
+        destino.put(pagina, 1 + n * (Long.BYTES + Integer.BYTES + Integer.BYTES), n * BYTES_CODIGO);
+        byte[] codigo = saida.getCodigoVaga().getBytes(StandardCharsets.US_ASCII);
+        destino.put(codigo, 0, Math.min(codigo.length, BYTES_CODIGO));
+        return destino.array();
+    }
+
+    // Visitas da página, da mais recente para a mais antiga
+    public static List<Visita> visitas(byte[] pagina) {
+        int n = quantidade(pagina);
+        ByteBuffer buffer = ByteBuffer.wrap(pagina);
+        int saidas = 1;
+        int duracoes = saidas + n * Long.BYTES;
+        int valores = duracoes + n * Integer.BYTES;
+        int codigos = valores + n * Integer.BYTES;
+        List<Visita> visitas = new ArrayList<>(n);
+        for (int i = n - 1; i >= 0; i--) {
+            LocalDateTime dataSaida = dataHora(buffer.getLong(saidas + i * Long.BYTES));
+            int duracao = buffer.getInt(duracoes + i * Integer.BYTES);
+            int valor = buffer.getInt(valores + i * Integer.BYTES);
+            visitas.add(new Visita(
+                    codigo(pagina, codigos + i * BYTES_CODIGO),
+                    dataSaida.minusSeconds(duracao),
+                    dataSaida,
+                    valor == SEM_VALOR ? null : BigDecimal.valueOf(valor, 2)));
+        }
+        return visitas;
+    }
+
+    private static String codigo(byte[] pagina, int inicio) {
+        int fim = inicio;
+        while (fim < inicio + BYTES_CODIGO && pagina[fim] != 0) {
+            fim++;
+        }
+        return new String(pagina, inicio, fim - inicio, StandardCharsets.US_ASCII);
+    }
+
+    // Mesma convenção do journal: data local gravada como epoch em UTC
+    private static long epochMilli(LocalDateTime dataHora) {
+        return dataHora.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime dataHora(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
+
+    public record Visita(String codigoVaga, LocalDateTime dataEntrada, LocalDateTime dataSaida, BigDecimal valor) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.park_api.services;
+
+import com.example.park_api.entities.RefreshToken;
+import com.example.park_api.entities.User;
+import com.example.park_api.exception.InvalidRefreshTokenException;
+import com.example.park_api.jwt.JwtToken;
+import com.example.park_api.jwt.JwtUtils;
+import com.example.park_api.repositories.RefreshTokenRepository;
+import com.example.park_api.repositories.projection.RefreshTokenProjection;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Refresh tokens opacos e rotativos.
+// Renovar o access token custa uma consulta pelo índice do hash, um UPDATE e uma assinatura ES256, sem BCrypt.
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final EntityManager entityManager;
+
+    // Janela deslizante: sem renovação nesse intervalo o refresh token expira
+    @Value("${jwt.refresh.ttl:7d}")
+    private Duration ttl;
+
+    // Duração máxima da sessão a partir do login, independentemente das renovações
+    @Value("${jwt.refresh.session-max:30d}")
+    private Duration sessionMax;
+
+    // Abre uma sessão para o usuário autenticado e retorna o refresh token (o valor em claro não é gravado)
+    @Transactional
+    public String criar(Long usuarioId) {
+        String token = gerarToken();
+        LocalDateTime agora = LocalDateTime.now();
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUsuario(entityManager.getReference(User.class, usuarioId));
+        refreshToken.setSessionExpiresAt(agora.plus(sessionMax));
+        refreshToken.setExpiresAt(min(agora.plus(ttl), refreshToken.getSessionExpiresAt()));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    // Troca um refresh token válido por um novo access token e um novo refresh token; o token apresentado deixa de valer
+    @Transactional
+    public JwtToken renovar(String refreshToken) {
+        byte[] hashAtual = hash(refreshToken);
+        RefreshTokenProjection sessao = refreshTokenRepository.findByTokenHash(hashAtual).orElseThrow(
+                () -> new InvalidRefreshTokenException("Refresh token inválido ou expirado")
+        );
+        LocalDateTime agora = LocalDateTime.now();
+        if (!sessao.getExpiresAt().isAfter(agora)) {
+            throw new InvalidRefreshTokenException("Refresh token inválido ou expirado");
+        }
+
+        String novoToken = gerarToken();
+        LocalDateTime expiresAt = min(agora.plus(ttl), sessao.getSessionExpiresAt());
+        if (refreshTokenRepository.rotate(sessao.getId(), hashAtual, hash(novoToken), expiresAt) == 0) {
+            // Outra requisição renovou a sessão com o mesmo token entre a consulta e o UPDATE
+            throw new InvalidRefreshTokenException("Refresh token inválido ou expirado");
+        }
+
+        JwtToken token = JwtUtils.createToken(sessao.getUsuarioId(), sessao.getUsername(),
+                sessao.getRole().name().substring("ROLE_".length()));
+        token.setRefreshToken(novoToken);
+        return token;
+    }
+
+    // Encerra a sessão do refresh token informado (ex.: logout) se ela pertence ao usuário; um token desconhecido ou de
+    // outro usuário é ignorado
+    @Transactional
+    public void revogar(String refreshToken, Long usuarioId) {
+        refreshTokenRepository.deleteByTokenHashAndUsuarioId(hash(refreshToken), usuarioId);
+    }
+
+    // Encerra todas as sessões do usuário (ex.: troca de senha)
+    @Transactional
+    public void revogarTodos(Long usuarioId) {
+        refreshTokenRepository.deleteByUsuarioId(usuarioId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-ms:3600000}")
+    @Transactional
+    public void removerExpirados() {
+        int removidos = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (removidos > 0) {
+            log.debug("{} refresh tokens expirados removidos", removidos);
+        }
+    }
+
+    private static String gerarToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // O token tem 256 bits aleatórios, então um SHA-256 simples (sem sal) basta para não guardar o valor em claro
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
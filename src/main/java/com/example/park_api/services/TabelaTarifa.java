@@ -0,0 +1,169 @@
+package com.example.park_api.services;
+
+import com.example.park_api.entities.Tarifa;
+import com.example.park_api.exception.TarifaInvalidaException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Tarifa compilada em tabelas planas de centavos: o cálculo de um ticket é aritmética sobre arrays, sem percorrer as
+// regras e sem alocar objetos. Imutável; a troca de tarifa publica uma tabela nova (TarifaService).
+//
+// acumulado[i + fracao] = acumulado[i] + preço da fração que começa no minuto i do dia (i cobre dois dias), então
+// as k frações que começam em m, m + fracao, ... custam acumulado[m + k * fracao] - acumulado[m], qualquer que seja k.
+public final class TabelaTarifa {
+
+    private static final int MINUTOS_DIA = 24 * 60;
+    // Tickets por tarefa no recálculo em lote
+    private static final int LIMIAR_LOTE = 2048;
+
+    private final long versao;
+    private final int fracao;
+    private final long fracaoSegundos;
+    private final int fracoesPorDia;
+    private final long teto;
+    private final long[] acumulado;
+    // Percentual de desconto pelo número de visitas anteriores; a última posição vale para qualquer número maior
+    private final int[] descontoPorVisitas;
+
+    private TabelaTarifa(long versao, int fracao, long teto, long[] acumulado, int[] descontoPorVisitas) {
+        this.versao = versao;
+        this.fracao = fracao;
+        this.fracaoSegundos = fracao * 60L;
+        this.fracoesPorDia = MINUTOS_DIA / fracao;
+        this.teto = teto;
+        this.acumulado = acumulado;
+        this.descontoPorVisitas = descontoPorVisitas;
+    }
+
+    public static TabelaTarifa compilar(Tarifa tarifa) {
+        int fracao = tarifa.getFracaoMinutos();
+        if (fracao <= 0 || MINUTOS_DIA % fracao != 0) {
+            throw new TarifaInvalidaException("A fração deve dividir o dia em partes iguais (ex.: 15, 30 ou 60 minutos)");
+        }
+
+        long[] precoPorMinuto = new long[MINUTOS_DIA];
+        boolean[] coberto = new boolean[MINUTOS_DIA];
+        for (Tarifa.Faixa faixa : tarifa.getFaixas()) {
+            int inicio = faixa.getInicio().toSecondOfDay() / 60;
+            int fim = faixa.getFim().toSecondOfDay() / 60;
+            if (fim <= inicio) {
+                fim += MINUTOS_DIA;
+            }
+            long preco = centavos(faixa.getValorFracao(), "valor da fração");
+            for (int minuto = inicio; minuto < fim; minuto++) {
+                int m = minuto % MINUTOS_DIA;
+                if (coberto[m]) {
+                    throw new TarifaInvalidaException(String.format("Faixa %s-%s sobreposta a outra faixa",
+                            faixa.getInicio(), faixa.getFim()));
+                }
+                coberto[m] = true;
+                precoPorMinuto[m] = preco;
+            }
+        }
+        long[] acumulado = new long[2 * MINUTOS_DIA];
+        for (int i = 0; i + fracao < acumulado.length; i++) {
+            acumulado[i + fracao] = acumulado[i] + precoPorMinuto[i % MINUTOS_DIA];
+        }
+
+        long teto = tarifa.getTetoDiario() == null ? Long.MAX_VALUE : centavos(tarifa.getTetoDiario(), "teto diário");
+
+        List<Tarifa.Desconto> descontos = tarifa.getDescontos().stream()
+                .sorted(Comparator.comparingInt(Tarifa.Desconto::getVisitasMinimas))
+                .toList();
+        int maxVisitas = descontos.isEmpty() ? 0 : Math.max(0, descontos.get(descontos.size() - 1).getVisitasMinimas());
+        int[] descontoPorVisitas = new int[maxVisitas + 1];
+        int anterior = -1;
+        for (Tarifa.Desconto desconto : descontos) {
+            if (desconto.getVisitasMinimas() < 0 || desconto.getVisitasMinimas() == anterior
+                    || desconto.getPercentual() < 0 || desconto.getPercentual() > 100) {
+                throw new TarifaInvalidaException(String.format("Desconto inválido a partir de %d visitas",
+                        desconto.getVisitasMinimas()));
+            }
+            for (int visitas = desconto.getVisitasMinimas(); visitas <= maxVisitas; visitas++) {
+                descontoPorVisitas[visitas] = desconto.getPercentual();
+            }
+            anterior = desconto.getVisitasMinimas();
+        }
+
+        return new TabelaTarifa(tarifa.getId() == null ? 0 : tarifa.getId(), fracao, teto, acumulado, descontoPorVisitas);
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    // Valor em centavos de uma permanência; as datas são locais, em segundos desde a época como se fossem UTC
+    public long calcular(long entradaSegundos, long saidaSegundos, long visitasAnteriores) {
+        long duracao = saidaSegundos - entradaSegundos;
+        if (duracao <= 0) {
+            return 0;
+        }
+        long fracoes = (duracao + fracaoSegundos - 1) / fracaoSegundos;
+        int minuto = (int) Math.floorMod(Math.floorDiv(entradaSegundos, 60), MINUTOS_DIA);
+        long base = acumulado[minuto];
+        // O teto vale para cada período de 24h a partir da entrada; um período completo cobra todas as frações do dia
+        long valor = (fracoes / fracoesPorDia) * Math.min(teto, acumulado[minuto + MINUTOS_DIA] - base)
+                + Math.min(teto, acumulado[minuto + (int) (fracoes % fracoesPorDia) * fracao] - base);
+        int percentual = descontoPorVisitas[(int) Math.min(visitasAnteriores, descontoPorVisitas.length - 1)];
+        return percentual == 0 ? valor : (valor * (100 - percentual) + 50) / 100;
+    }
+
+    public long calcular(LocalDateTime entrada, LocalDateTime saida, long visitasAnteriores) {
+        return calcular(entrada.toEpochSecond(ZoneOffset.UTC), saida.toEpochSecond(ZoneOffset.UTC), visitasAnteriores);
+    }
+
+    // Recálculo em lote no pool fork-join comum: valores[i] recebe o valor do ticket i
+    public void calcular(long[] entradas, long[] saidas, long[] visitasAnteriores, long[] valores) {
+        ForkJoinPool.commonPool().invoke(new Lote(entradas, saidas, visitasAnteriores, valores, 0, valores.length));
+    }
+
+    private static long centavos(BigDecimal valor, String campo) {
+        if (valor == null || valor.signum() < 0) {
+            throw new TarifaInvalidaException(String.format("O %s deve ser maior ou igual a zero", campo));
+        }
+        try {
+            return valor.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new TarifaInvalidaException(String.format("O %s deve ter no máximo duas casas decimais", campo));
+        }
+    }
+
+    private final class Lote extends RecursiveAction {
+
+        private final long[] entradas;
+        private final long[] saidas;
+        private final long[] visitas;
+        private final long[] valores;
+        private final int inicio;
+        private final int fim;
+
+        Lote(long[] entradas, long[] saidas, long[] visitas, long[] valores, int inicio, int fim) {
+            this.entradas = entradas;
+            this.saidas = saidas;
+            this.visitas = visitas;
+            this.valores = valores;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= LIMIAR_LOTE) {
+                for (int i = inicio; i < fim; i++) {
+                    valores[i] = calcular(entradas[i], saidas[i], visitas[i]);
+                }
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new Lote(entradas, saidas, visitas, valores, inicio, meio),
+                    new Lote(entradas, saidas, visitas, valores, meio, fim));
+        }
+    }
+}
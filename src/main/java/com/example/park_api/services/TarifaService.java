@@ -0,0 +1,138 @@
+package com.example.park_api.services;
+
+import com.example.park_api.entities.Tarifa;
+import com.example.park_api.exception.EntityNotFoundException;
+import com.example.park_api.repositories.EstacionamentoEventoRepository;
+import com.example.park_api.repositories.TarifaRepository;
+import com.example.park_api.repositories.projection.SaidaProjection;
+import com.example.park_api.repositories.projection.VisitasProjection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Tarifa vigente compilada em uma TabelaTarifa imutável. A recarga compila a tabela nova fora do caminho das
+// requisições e a publica com uma escrita volátil: os check-outs em andamento terminam com a tabela que já leram
+// e nenhum deles espera pela troca.
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class TarifaService {
+
+    private final TarifaRepository tarifaRepository;
+    private final EstacionamentoEventoRepository eventoRepository;
+
+    // null enquanto nenhuma tarifa foi cadastrada: as saídas são registradas sem valor
+    private volatile TabelaTarifa tabela;
+
+    @Transactional
+    public Tarifa salvar(Tarifa tarifa) {
+        // Regras inválidas não chegam ao banco: a compilação falha antes do commit
+        TabelaTarifa compilada = TabelaTarifa.compilar(tarifaRepository.save(tarifa));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publicar(compilada);
+            }
+        });
+        return tarifa;
+    }
+
+    @Transactional(readOnly = true)
+    public Tarifa buscarVigente() {
+        Tarifa tarifa = tarifaRepository.findIdVigente()
+                .flatMap(tarifaRepository::findById)
+                .orElseThrow(() -> new EntityNotFoundException("Nenhuma tarifa cadastrada no sistema"));
+        Hibernate.initialize(tarifa.getFaixas());
+        Hibernate.initialize(tarifa.getDescontos());
+        return tarifa;
+    }
+
+    // Carga na inicialização e verificação periódica de tarifas cadastradas por outras instâncias
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${tarifas.reload-ms:60000}", initialDelayString = "${tarifas.reload-ms:60000}")
+    @Transactional(readOnly = true)
+    public void recarregar() {
+        Long vigente = tarifaRepository.findIdVigente().orElse(null);
+        TabelaTarifa atual = tabela;
+        if (vigente == null || (atual != null && atual.getVersao() == vigente)) {
+            return;
+        }
+        publicar(TabelaTarifa.compilar(buscarVigente()));
+    }
+
+    // Valor da permanência pela tarifa vigente; null se não houver tarifa
+    public BigDecimal calcular(LocalDateTime entrada, LocalDateTime saida, long visitasAnteriores) {
+        TabelaTarifa atual = tabela;
+        return atual == null ? null : BigDecimal.valueOf(atual.calcular(entrada, saida, visitasAnteriores), 2);
+    }
+
+    // Quanto a tarifa vigente cobraria pelas saídas de um dia, comparado ao que foi cobrado. Os tickets encerrados
+    // não são alterados; o cálculo roda em paralelo no pool fork-join sobre arrays de primitivos
+    @Transactional(readOnly = true)
+    public Recalculo recalcularDia(LocalDate dia) {
+        TabelaTarifa atual = tabela;
+        if (atual == null) {
+            throw new EntityNotFoundException("Nenhuma tarifa cadastrada no sistema");
+        }
+        LocalDateTime inicio = dia.atStartOfDay();
+        List<SaidaProjection> saidas = eventoRepository.findSaidasEntre(inicio, inicio.plusDays(1));
+        if (saidas.isEmpty()) {
+            return new Recalculo(dia, 0, BigDecimal.ZERO.setScale(2), BigDecimal.ZERO.setScale(2));
+        }
+
+        // Visitas anteriores de cada ticket: as encerradas antes do dia mais as do próprio dia que vieram antes dele
+        Map<String, Long> visitas = new HashMap<>(eventoRepository.contarVisitasAntes(inicio,
+                        saidas.stream().map(SaidaProjection::getCpf).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(VisitasProjection::getCpf, VisitasProjection::getVisitas)));
+        int n = saidas.size();
+        long[] entradas = new long[n];
+        long[] datasSaida = new long[n];
+        long[] visitasAnteriores = new long[n];
+        long[] valores = new long[n];
+        long cobrado = 0;
+        for (int i = 0; i < n; i++) {
+            SaidaProjection saida = saidas.get(i);
+            entradas[i] = saida.getDataEntrada().toEpochSecond(ZoneOffset.UTC);
+            datasSaida[i] = saida.getDataHora().toEpochSecond(ZoneOffset.UTC);
+            visitasAnteriores[i] = visitas.merge(saida.getCpf(), 1L, Long::sum) - 1;
+            if (saida.getValor() != null) {
+                cobrado += saida.getValor().movePointRight(2).longValueExact();
+            }
+        }
+        atual.calcular(entradas, datasSaida, visitasAnteriores, valores);
+
+        long recalculado = 0;
+        for (long valor : valores) {
+            recalculado += valor;
+        }
+        return new Recalculo(dia, n, BigDecimal.valueOf(cobrado, 2), BigDecimal.valueOf(recalculado, 2));
+    }
+
+    // Uma recarga lenta não sobrescreve uma tarifa mais nova publicada enquanto ela compilava
+    private synchronized void publicar(TabelaTarifa compilada) {
+        TabelaTarifa atual = tabela;
+        if (atual == null || compilada.getVersao() > atual.getVersao()) {
+            tabela = compilada;
+            log.info("Tarifa id={} publicada", compilada.getVersao());
+        }
+    }
+
+    public record Recalculo(LocalDate dia, int tickets, BigDecimal totalCobrado, BigDecimal totalRecalculado) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.park_api.services;
+
+import com.example.park_api.entities.RevokedToken;
+import com.example.park_api.jwt.JwtUtils;
+import com.example.park_api.jwt.TokenRevocationList;
+import com.example.park_api.repositories.RevokedTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+// Grava as revogações no log persistido e mantém a TokenRevocationList desta instância sincronizada com ele.
+// A instância que revoga aplica a revogação em memória logo após o commit; as demais a recebem na próxima sincronização.
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationList revocationList;
+
+    // Linhas gravadas por outras instâncias podem ficar visíveis fora de ordem; cada sincronização relê esta janela
+    @Value("${jwt.revocation.sync-overlap:10s}")
+    private Duration syncOverlap;
+
+    private volatile long lastSync;
+
+    // Revoga um token específico até a sua expiração (ex.: logout)
+    @Transactional
+    public void revogarToken(String jti, long expiresAt) {
+        RevokedToken revogacao = new RevokedToken();
+        revogacao.setJti(jti);
+        revogacao.setExpiresAt(expiresAt);
+        registrar(revogacao);
+    }
+
+    // Revoga todos os tokens do usuário emitidos até agora (ex.: troca de senha)
+    @Transactional
+    public void revogarUsuario(Long usuarioId) {
+        long agora = System.currentTimeMillis();
+        RevokedToken revogacao = new RevokedToken();
+        revogacao.setUsuarioId(usuarioId);
+        revogacao.setRevokedBefore(agora);
+        revogacao.setExpiresAt(agora + JwtUtils.tokenTtl().toMillis());
+        registrar(revogacao);
+    }
+
+    // Carga completa na inicialização; depois apenas as linhas recentes
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-ms:2000}", initialDelayString = "${jwt.revocation.sync-ms:2000}")
+    @Transactional(readOnly = true)
+    public void sincronizar() {
+        long agora = System.currentTimeMillis();
+        long desde = lastSync == 0 ? 0 : lastSync - syncOverlap.toMillis();
+        revokedTokenRepository.findCriadosDesde(desde, agora).forEach(this::aplicar);
+        lastSync = agora;
+    }
+
+    // Remove as linhas e entradas em memória que não afetam mais nenhum token válido
+    @Scheduled(fixedDelayString = "${jwt.revocation.gc-ms:60000}")
+    @Transactional
+    public void removerExpirados() {
+        int removidos = revokedTokenRepository.deleteExpired(System.currentTimeMillis());
+        revocationList.gc();
+        if (removidos > 0) {
+            log.debug("{} revogações expiradas removidas", removidos);
+        }
+    }
+
+    private void registrar(RevokedToken revogacao) {
+        revogacao.setCriadoEm(System.currentTimeMillis());
+        revokedTokenRepository.save(revogacao);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(revogacao);
+                }
+            });
+        } else {
+            aplicar(revogacao);
+        }
+    }
+
+    private void aplicar(RevokedToken revogacao) {
+        if (revogacao.getJti() != null) {
+            revocationList.revokeToken(revogacao.getJti(), revogacao.getExpiresAt());
+        } else if (revogacao.getUsuarioId() != null && revogacao.getRevokedBefore() != null) {
+            revocationList.revokeUser(revogacao.getUsuarioId(), revogacao.getRevokedBefore(), revogacao.getExpiresAt());
+        }
+    }
+}
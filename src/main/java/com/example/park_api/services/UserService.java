@@ -5,12 +5,17 @@ import com.example.park_api.exception.EntityNotFoundException;
 import com.example.park_api.exception.PasswordInvalidException;
 import com.example.park_api.repositories.UserRepository;
 import com.example.park_api.exception.UsernameUniqueViolationException;
-import jakarta.transaction.Transactional;
+import com.example.park_api.repositories.projection.UserProjection;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Service
@@ -18,6 +23,12 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final EntityManager entityManager;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+
+    // Quantidade de linhas exportadas entre cada limpeza do contexto de persistência
+    private static final int EXPORT_BATCH_SIZE = 1000;
 
     @Transactional
     public User salvar(User user) {
@@ -36,6 +47,12 @@ public class UserService {
         );
     }
 
+    // Regrava apenas o hash da senha (já codificado), sem alterar os dados de auditoria do usuário
+    @Transactional
+    public void atualizarHashSenha(String username, String hash) {
+        userRepository.updatePasswordByUsername(username, hash);
+    }
+
     @Transactional
     public User editarSenha(Long id, String currentPassword, String newPassword, String confirmPassword) {
         if (!newPassword.equals(confirmPassword)) {
@@ -45,7 +62,10 @@ public class UserService {
         if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
             throw new PasswordInvalidException("Sua senha não confere.");
         }
-        user.setPassword(newPassword);
+        user.setPassword(passwordEncoder.encode(newPassword));
+        // Sessões abertas com a senha antiga não podem mais renovar o token, e os tokens já emitidos deixam de valer
+        refreshTokenService.revogarTodos(id);
+        tokenRevocationService.revogarUsuario(id);
         return user;
     }
 
@@ -54,15 +74,25 @@ public class UserService {
         return userRepository.findAll();
     }
 
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    @Transactional(readOnly = true)
     public User buscarPorUsername(String username) {
-        return userRepository.findByUsername(username).orElseThrow(
+        // Busca pelo natural id: username -> id e a entidade são resolvidos pelo cache de segundo nível quando possível
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username).orElseThrow(
                 () -> new EntityNotFoundException(String.format("User com '%s' não encontrado", username))
         );
     }
 
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
-    public User.Role buscarRolePorUsername(String username) {
-        return userRepository.findRoleByUsername(username);
+    // Percorre todos os usuários em um cursor somente leitura, entregando uma linha por vez ao consumidor
+    @Transactional(readOnly = true)
+    public void exportar(Consumer<UserProjection> consumer) {
+        try (Stream<UserProjection> users = userRepository.streamAll()) {
+            int[] count = {0};
+            users.forEach(user -> {
+                consumer.accept(user);
+                if (++count[0] % EXPORT_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
     }
 }
@@ -0,0 +1,171 @@
+package com.example.park_api.services;
+
+import com.example.park_api.entities.Vaga;
+import com.example.park_api.repositories.projection.VagaProjection;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Índice em memória das vagas livres de cada zona.
+// Cada zona é um bitmap (bit 1 = livre) em palavras de 64 vagas. A reserva sorteia a palavra e o bit de partida e limpa
+// o bit com CAS: portões concorrentes caem em palavras diferentes e nenhum deles espera por lock ou por linha bloqueada.
+// Quem limpou o bit tem a vaga só para si até gravar a ocupação no banco ou devolvê-la.
+// O índice é uma dica: a garantia contra dupla ocupação é o update condicional na versão feito pelo VagaService.
+@Component
+public class VagaFreeIndex {
+
+    // Estado imutável trocado por inteiro a cada recarga; os bitmaps e versões dentro dele são atômicos
+    private volatile State state = new State(Map.of(), Map.of());
+
+    // Reserva uma vaga livre da zona; null se a zona não tem vaga livre (ou não existe)
+    public Reserva reservar(String zona) {
+        Zona z = state.zonas.get(zona);
+        if (z == null) {
+            return null;
+        }
+        int slot = z.reservar();
+        if (slot < 0) {
+            return null;
+        }
+        return new Reserva(z.ids[slot], z.codigos[slot], zona, z.versoes.get(slot));
+    }
+
+    // Devolve uma reserva que não chegou a ser gravada (ex.: falha no banco)
+    public void devolver(Reserva reserva) {
+        atualizar(reserva.id(), reserva.versao(), true);
+    }
+
+    // Registra o estado da vaga no banco: a versão atual e se ela está livre
+    public void atualizar(long id, long versao, boolean livre) {
+        Posicao posicao = state.posicoes.get(id);
+        if (posicao == null) {
+            return;
+        }
+        // A versão é gravada antes do bit: quem reservar a vaga em seguida já lê a versão nova
+        posicao.zona.versoes.set(posicao.slot, versao);
+        if (livre) {
+            posicao.zona.marcarLivre(posicao.slot);
+        } else {
+            posicao.zona.marcarOcupada(posicao.slot);
+        }
+    }
+
+    // Versão conhecida da vaga; -1 se ela não está no índice
+    public long versao(long id) {
+        Posicao posicao = state.posicoes.get(id);
+        return posicao != null ? posicao.zona.versoes.get(posicao.slot) : -1;
+    }
+
+    // Zona da vaga; null se ela não está no índice
+    public String zona(long id) {
+        Posicao posicao = state.posicoes.get(id);
+        return posicao != null ? posicao.nomeZona : null;
+    }
+
+    public boolean possuiZona(String zona) {
+        return state.zonas.containsKey(zona);
+    }
+
+    public Map<String, Integer> livresPorZona() {
+        Map<String, Integer> livres = new TreeMap<>();
+        state.zonas.forEach((nome, zona) -> livres.put(nome, zona.livres()));
+        return livres;
+    }
+
+    // Reconstrói o índice a partir do banco. Reservas em andamento continuam protegidas pela versão no update
+    public synchronized void recarregar(List<? extends VagaProjection> vagas) {
+        Map<String, List<VagaProjection>> porZona = new HashMap<>();
+        for (VagaProjection vaga : vagas) {
+            porZona.computeIfAbsent(vaga.getZona(), z -> new ArrayList<>()).add(vaga);
+        }
+        Map<String, Zona> zonas = new HashMap<>();
+        Map<Long, Posicao> posicoes = new HashMap<>();
+        porZona.forEach((nome, lista) -> {
+            Zona zona = new Zona(lista.size());
+            for (int slot = 0; slot < lista.size(); slot++) {
+                VagaProjection vaga = lista.get(slot);
+                zona.ids[slot] = vaga.getId();
+                zona.codigos[slot] = vaga.getCodigo();
+                zona.versoes.set(slot, vaga.getVersao());
+                if (vaga.getStatus() == Vaga.Status.LIVRE) {
+                    zona.marcarLivre(slot);
+                }
+                posicoes.put(vaga.getId(), new Posicao(nome, zona, slot));
+            }
+            zonas.put(nome, zona);
+        });
+        state = new State(Map.copyOf(zonas), Map.copyOf(posicoes));
+    }
+
+    public record Reserva(long id, String codigo, String zona, long versao) {
+    }
+
+    private record Posicao(String nomeZona, Zona zona, int slot) {
+    }
+
+    private record State(Map<String, Zona> zonas, Map<Long, Posicao> posicoes) {
+    }
+
+    private static final class Zona {
+
+        private final long[] ids;
+        private final String[] codigos;
+        private final AtomicLongArray versoes;
+        private final AtomicLongArray livres;
+
+        Zona(int tamanho) {
+            this.ids = new long[tamanho];
+            this.codigos = new String[tamanho];
+            this.versoes = new AtomicLongArray(tamanho);
+            this.livres = new AtomicLongArray((tamanho + 63) / 64);
+        }
+
+        // Percorre as palavras a partir de uma posição sorteada e limpa o primeiro bit livre encontrado; -1 se não há
+        int reservar() {
+            int palavras = livres.length();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int palavra = random.nextInt(palavras);
+            int inicio = random.nextInt(64);
+            for (int i = 0; i < palavras; i++) {
+                long bits;
+                while ((bits = livres.get(palavra)) != 0) {
+                    // Primeiro bit livre a partir de 'inicio', com a palavra vista como circular
+                    int bit = (Long.numberOfTrailingZeros(Long.rotateRight(bits, inicio)) + inicio) & 63;
+                    if (livres.compareAndSet(palavra, bits, bits & ~(1L << bit))) {
+                        return (palavra << 6) | bit;
+                    }
+                }
+                if (++palavra == palavras) {
+                    palavra = 0;
+                }
+            }
+            return -1;
+        }
+
+        void marcarLivre(int slot) {
+            long mask = 1L << slot;
+            long bits;
+            do {
+                bits = livres.get(slot >>> 6);
+            } while ((bits & mask) == 0 && !livres.compareAndSet(slot >>> 6, bits, bits | mask));
+        }
+
+        void marcarOcupada(int slot) {
+            long mask = 1L << slot;
+            long bits;
+            do {
+                bits = livres.get(slot >>> 6);
+            } while ((bits & mask) != 0 && !livres.compareAndSet(slot >>> 6, bits, bits & ~mask));
+        }
+
+        int livres() {
+            int total = 0;
+            for (int i = 0; i < livres.length(); i++) {
+                total += Long.bitCount(livres.get(i));
+            }
+            return total;
+        }
+    }
+}
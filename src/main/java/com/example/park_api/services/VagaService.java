@@ -0,0 +1,220 @@
+package com.example.park_api.services;
+
+import com.example.park_api.entities.Vaga;
+import com.example.park_api.exception.CodigoUniqueViolationException;
+import com.example.park_api.exception.EntityNotFoundException;
+import com.example.park_api.exception.EstacionamentoEmAbertoException;
+import com.example.park_api.exception.VagaIndisponivelException;
+import com.example.park_api.repositories.VagaRepository;
+import com.example.park_api.repositories.projection.VagaProjection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+// Ocupação e liberação de vagas: a vaga é escolhida no VagaFreeIndex, sem lock, e a troca de status é gravada com um
+// UPDATE condicional na versão. Se o índice estiver desatualizado (outra instância ocupou a vaga, recarga em andamento)
+// o update não altera nada, o índice é corrigido com o estado do banco e outra vaga é tentada.
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class VagaService {
+
+    // Vagas tentadas em uma mesma requisição antes de responder que não há vaga livre
+    private static final int MAX_TENTATIVAS = 8;
+
+    // Leituras do banco para recontar a ocupação antes de deixar a recontagem para a próxima recarga
+    private static final int MAX_TENTATIVAS_RECONTAGEM = 3;
+
+    private final VagaRepository vagaRepository;
+    private final VagaFreeIndex vagaFreeIndex;
+    private final OcupacaoPorZona ocupacaoPorZona;
+
+    @Transactional
+    public Vaga salvar(Vaga vaga) {
+        try {
+            vagaRepository.saveAndFlush(vaga);
+        } catch (DataIntegrityViolationException ex) {
+            throw new CodigoUniqueViolationException(
+                    String.format("Vaga '%s' não pode ser cadastrada, já existe no sistema", vaga.getCodigo())
+            );
+        }
+        // Cadastro de vaga é raro: o índice é reconstruído depois do commit, já com a vaga nova
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recarregarIndice();
+            }
+        });
+        return vaga;
+    }
+
+    public Vaga ocupar(String zona) {
+        return ocupar(zona, null);
+    }
+
+    // Ocupa uma vaga da zona para o cliente do CPF (null na ocupação manual). O CPF gravado na vaga é único: um cliente
+    // que já ocupa outra vaga é recusado pelo banco, qualquer que seja a instância que registrou a primeira entrada
+    public Vaga ocupar(String zona, String cpf) {
+        if (!vagaFreeIndex.possuiZona(zona)) {
+            throw new EntityNotFoundException(String.format("Zona '%s' não possui vagas cadastradas", zona));
+        }
+        for (int tentativa = 0; tentativa < MAX_TENTATIVAS; tentativa++) {
+            VagaFreeIndex.Reserva reserva = vagaFreeIndex.reservar(zona);
+            if (reserva == null) {
+                break;
+            }
+            int alteradas;
+            ocupacaoPorZona.iniciarAlteracao();
+            try {
+                alteradas = vagaRepository.alterarStatus(reserva.id(), reserva.versao(), Vaga.Status.LIVRE, Vaga.Status.OCUPADA, cpf);
+                if (alteradas == 1) {
+                    ocupacaoPorZona.ocupar(zona);
+                }
+            } catch (DataIntegrityViolationException ex) {
+                vagaFreeIndex.devolver(reserva);
+                throw new EstacionamentoEmAbertoException(String.format("Cliente com CPF '%s' já ocupa uma vaga", cpf));
+            } catch (RuntimeException ex) {
+                vagaFreeIndex.devolver(reserva);
+                throw ex;
+            } finally {
+                ocupacaoPorZona.concluirAlteracao();
+            }
+            if (alteradas == 1) {
+                vagaFreeIndex.atualizar(reserva.id(), reserva.versao() + 1, false);
+                return toVaga(reserva, Vaga.Status.OCUPADA);
+            }
+            sincronizar(reserva.id());
+        }
+        throw new VagaIndisponivelException(String.format("Nenhuma vaga livre na zona '%s'", zona));
+    }
+
+    // Libera a vaga; liberar uma vaga já livre não é erro
+    public void liberar(Long id) {
+        for (int tentativa = 0; tentativa < MAX_TENTATIVAS; tentativa++) {
+            long versao = vagaFreeIndex.versao(id);
+            String zona = vagaFreeIndex.zona(id);
+            if (versao < 0) {
+                // Vaga ainda fora do índice (ex.: cadastrada por outra instância): usa a versão do banco
+                VagaProjection vaga = buscarEstado(id);
+                if (vaga.getStatus() == Vaga.Status.LIVRE) {
+                    return;
+                }
+                versao = vaga.getVersao();
+                zona = vaga.getZona();
+            }
+            if (liberarNoBanco(id, zona, versao)) {
+                vagaFreeIndex.atualizar(id, versao + 1, true);
+                return;
+            }
+            VagaProjection vaga = sincronizar(id);
+            if (vaga == null) {
+                throw vagaNaoEncontrada(id);
+            }
+            if (vaga.getStatus() == Vaga.Status.LIVRE) {
+                return;
+            }
+        }
+        throw new VagaIndisponivelException(String.format("Vaga id=%s em alteração concorrente, tente novamente", id));
+    }
+
+    // Libera a vaga apenas se ela ainda estiver na ocupação registrada no check-in (a versão gravada na entrada), sem
+    // reler o banco e tentar de novo. false se a vaga já saiu dessa ocupação: liberada por um check-out repetido do
+    // mesmo recibo em outra instância, ou liberada e já ocupada por outro cliente, que não pode perder a vaga
+    public boolean liberar(Long id, String zona, long versaoOcupada) {
+        if (!liberarNoBanco(id, zona, versaoOcupada)) {
+            return false;
+        }
+        vagaFreeIndex.atualizar(id, versaoOcupada + 1, true);
+        return true;
+    }
+
+    // UPDATE de OCUPADA para LIVRE e o contador da zona, como uma alteração só para a recontagem da ocupação
+    private boolean liberarNoBanco(Long id, String zona, long versao) {
+        ocupacaoPorZona.iniciarAlteracao();
+        try {
+            if (vagaRepository.alterarStatus(id, versao, Vaga.Status.OCUPADA, Vaga.Status.LIVRE, null) != 1) {
+                return false;
+            }
+            ocupacaoPorZona.liberar(zona);
+            return true;
+        } finally {
+            ocupacaoPorZona.concluirAlteracao();
+        }
+    }
+
+    // A vaga continua na ocupação registrada no check-in
+    public boolean ocupadaNaVersao(Long id, long versaoOcupada) {
+        return vagaRepository.findEstadoById(id)
+                .map(vaga -> vaga.getStatus() == Vaga.Status.OCUPADA && vaga.getVersao() == versaoOcupada)
+                .orElse(false);
+    }
+
+    public Map<String, Integer> buscarLivresPorZona() {
+        return vagaFreeIndex.livresPorZona();
+    }
+
+    // Carga completa na inicialização e periodicamente, corrigindo qualquer divergência entre o índice e o banco
+    // (vagas cadastradas ou alteradas por outras instâncias)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${vagas.index.rebuild-ms:300000}", initialDelayString = "${vagas.index.rebuild-ms:300000}")
+    @Transactional(readOnly = true)
+    public void recarregarIndice() {
+        // Se uma alteração de vaga cruzou a leitura, a recontagem é refeita com uma leitura nova e, depois de algumas
+        // tentativas fica para a próxima recarga (os contadores seguem corretos para as alterações desta instância).
+        // O índice é reconstruído com a mesma leitura da recontagem
+        List<VagaProjection> vagas;
+        for (int tentativa = 1; ; tentativa++) {
+            OcupacaoPorZona.Recontagem recontagem = ocupacaoPorZona.iniciarRecontagem();
+            vagas = vagaRepository.findAllEstados();
+            if (ocupacaoPorZona.recarregar(recontagem, vagas)) {
+                break;
+            }
+            if (tentativa == MAX_TENTATIVAS_RECONTAGEM) {
+                log.debug("Recontagem da ocupação adiada: alterações de vagas em andamento durante a leitura");
+                break;
+            }
+        }
+        vagaFreeIndex.recarregar(vagas);
+        log.debug("Índice de vagas recarregado com {} vagas", vagas.size());
+    }
+
+    // Copia para o índice o estado atual da vaga no banco; null se ela não existe mais
+    private VagaProjection sincronizar(Long id) {
+        VagaProjection vaga = vagaRepository.findEstadoById(id).orElse(null);
+        if (vaga == null) {
+            // Vaga removida do banco: sai de circulação no índice até a próxima recarga
+            vagaFreeIndex.atualizar(id, -1, false);
+        } else {
+            vagaFreeIndex.atualizar(id, vaga.getVersao(), vaga.getStatus() == Vaga.Status.LIVRE);
+        }
+        return vaga;
+    }
+
+    private VagaProjection buscarEstado(Long id) {
+        return vagaRepository.findEstadoById(id).orElseThrow(() -> vagaNaoEncontrada(id));
+    }
+
+    private static EntityNotFoundException vagaNaoEncontrada(Long id) {
+        return new EntityNotFoundException(String.format("Vaga id=%s não encontrada no sistema", id));
+    }
+
+    private static Vaga toVaga(VagaFreeIndex.Reserva reserva, Vaga.Status status) {
+        Vaga vaga = new Vaga();
+        vaga.setId(reserva.id());
+        vaga.setCodigo(reserva.codigo());
+        vaga.setZona(reserva.zona());
+        vaga.setStatus(status);
+        vaga.setVersao(reserva.versao() + 1);
+        return vaga;
+    }
+}
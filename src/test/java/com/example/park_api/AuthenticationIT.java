@@ -1,12 +1,16 @@
 package com.example.park_api;
 
 import com.example.park_api.jwt.JwtToken;
+import com.example.park_api.resources.dto.RefreshTokenDTO;
 import com.example.park_api.resources.dto.UserLoginDTO;
 import com.example.park_api.resources.exception.ErrorMessage;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
@@ -17,6 +21,15 @@ public class AuthenticationIT {
     @Autowired
     WebTestClient testClient;
 
+    @Autowired
+    io.micrometer.core.instrument.MeterRegistry meterRegistry;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${security.bcrypt.strength:10}")
+    int strength;
+
     @Test
     public void autenticar_ComCredenciaisValidas_RetornarTokenComStatus200() {
         JwtToken responseBody = testClient
@@ -32,6 +45,67 @@ public class AuthenticationIT {
         org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
     }
 
+    @Test
+    public void autenticar_ComCredenciaisValidas_RegistrarMetricasDoPoolDeLogin() {
+        String responseBody = testClient
+                .get()
+                .uri("/actuator/metrics/executor.completed?tag=name:login.hashing")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).contains("\"name\":\"executor.completed\"");
+    }
+
+    @Test
+    public void coletarMetricas_NoFormatoPrometheus_RetornarHistogramasComStatus200() {
+        java.util.function.Consumer<org.springframework.http.HttpHeaders> token =
+                JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456");
+        testClient.get().uri("/api/v1/users").headers(token).exchange().expectStatus().isOk();
+
+        // A saída com os buckets de todos os endpoints passa do limite padrão de 256 KB do cliente
+        String responseBody = testClient
+                .mutate()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+                .build()
+                .get()
+                .uri("/actuator/prometheus")
+                .headers(token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("jwt_validation_seconds_bucket{")
+                .contains("password_encoder_seconds_bucket{")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("mapper_duration_seconds_bucket{")
+                .contains("logback_events_dropped_total");
+    }
+
+    @Test
+    public void autenticar_ComHashDeCustoMenorQueOConfigurado_RegravarHashComCustoConfigurado() {
+        String hashAntigo = new BCryptPasswordEncoder(4).encode("123456");
+        jdbcTemplate.update("INSERT INTO users (id, username, password, role) VALUES (110, 'leo@gmail.com', ?, 'ROLE_CLIENTE')", hashAntigo);
+
+        testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLoginDTO("leo@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk();
+
+        // O login bem-sucedido passa pelo updatePassword e regrava o hash com o custo de security.bcrypt.strength
+        String hash = jdbcTemplate.queryForObject("SELECT password FROM users WHERE id = 110", String.class);
+        org.assertj.core.api.Assertions.assertThat(hash).isNotEqualTo(hashAntigo).startsWith(String.format("$2a$%02d$", strength));
+        org.assertj.core.api.Assertions.assertThat(new BCryptPasswordEncoder().matches("123456", hash)).isTrue();
+    }
+
     @Test
     public void autenticar_ComCredenciaisInvalidas_RetornarErrorMessageStatus400() {
         ErrorMessage responseBody = testClient
@@ -132,4 +206,247 @@ public class AuthenticationIT {
         org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(422);
     }
 
+    @Test
+    public void autenticar_ComTokenInvalidoNoCabecalho_IgnorarFiltroJwtERetornarTokenComStatus200() {
+        io.micrometer.core.instrument.Timer invalidos = meterRegistry.get("jwt.validation").tag("result", "invalid").timer();
+        long antes = invalidos.count();
+
+        JwtToken responseBody = testClient
+                .post()
+                .uri("/api/v1/auth")
+                .header(org.springframework.http.HttpHeaders.AUTHORIZATION, "Bearer token-invalido")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLoginDTO("ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JwtToken.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(invalidos.count()).isEqualTo(antes);
+    }
+
+    @Test
+    public void documentacao_ArquivosEstaticos_RetornarComCacheControlPublico() {
+        testClient
+                .get()
+                .uri("/swagger-ui/index.html")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(org.springframework.http.HttpHeaders.CACHE_CONTROL, "public, max-age=604800");
+
+        testClient
+                .get()
+                .uri("/v3/api-docs")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(org.springframework.http.HttpHeaders.CACHE_CONTROL);
+    }
+
+    @Test
+    public void renovarToken_ComRefreshTokenValido_RetornarNovosTokensComStatus200() {
+        JwtToken login = testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLoginDTO("ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JwtToken.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(login.getRefreshToken()).isNotBlank();
+
+        JwtToken renovado = testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenDTO(login.getRefreshToken()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JwtToken.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(renovado.getToken()).isNotBlank();
+        org.assertj.core.api.Assertions.assertThat(renovado.getRefreshToken()).isNotBlank().isNotEqualTo(login.getRefreshToken());
+
+        // O novo access token autentica normalmente
+        testClient
+                .get()
+                .uri("/api/v1/users/100")
+                .header(org.springframework.http.HttpHeaders.AUTHORIZATION, "Bearer " + renovado.getToken())
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void renovarToken_ComRefreshTokenJaUtilizadoOuInvalido_RetornarErrorMessageComStatus401() {
+        JwtToken login = testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLoginDTO("ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JwtToken.class)
+                .returnResult().getResponseBody();
+
+        testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenDTO(login.getRefreshToken()))
+                .exchange()
+                .expectStatus().isOk();
+
+        // Após a rotação o token anterior não vale mais
+        ErrorMessage responseBody = testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenDTO(login.getRefreshToken()))
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(401);
+
+        testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenDTO("token-inexistente"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    public void publicarChaves_NoFormatoJwks_PermitirVerificarTokenSemChamarAApi() throws Exception {
+        JwtToken login = testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLoginDTO("ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JwtToken.class)
+                .returnResult().getResponseBody();
+
+        java.util.Map<String, java.util.List<java.util.Map<String, String>>> jwks = testClient
+                .get()
+                .uri("/.well-known/jwks.json")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(org.springframework.http.HttpHeaders.CACHE_CONTROL, "max-age=300, public")
+                .expectBody(new org.springframework.core.ParameterizedTypeReference<java.util.Map<String, java.util.List<java.util.Map<String, String>>>>() {})
+                .returnResult().getResponseBody();
+
+        // Localiza a chave pelo 'kid' do header do token e verifica a assinatura apenas com a chave publicada
+        String header = new String(java.util.Base64.getUrlDecoder().decode(login.getToken().split("\\.")[0]));
+        java.util.Map<String, String> jwk = jwks.get("keys").stream()
+                .filter(k -> header.contains("\"kid\":\"" + k.get("kid") + "\""))
+                .findFirst().orElseThrow();
+
+        org.assertj.core.api.Assertions.assertThat(jwk.get("kty")).isEqualTo("EC");
+        org.assertj.core.api.Assertions.assertThat(jwk.get("alg")).isEqualTo("ES256");
+
+        java.security.AlgorithmParameters parameters = java.security.AlgorithmParameters.getInstance("EC");
+        parameters.init(new java.security.spec.ECGenParameterSpec("secp256r1"));
+        java.security.spec.ECPoint point = new java.security.spec.ECPoint(
+                new java.math.BigInteger(1, java.util.Base64.getUrlDecoder().decode(jwk.get("x"))),
+                new java.math.BigInteger(1, java.util.Base64.getUrlDecoder().decode(jwk.get("y"))));
+        java.security.PublicKey publicKey = java.security.KeyFactory.getInstance("EC").generatePublic(
+                new java.security.spec.ECPublicKeySpec(point, parameters.getParameterSpec(java.security.spec.ECParameterSpec.class)));
+
+        io.jsonwebtoken.Claims claims = io.jsonwebtoken.Jwts.parserBuilder().setSigningKey(publicKey).build()
+                .parseClaimsJws(login.getToken()).getBody();
+
+        org.assertj.core.api.Assertions.assertThat(claims.getSubject()).isEqualTo("ana@gmail.com");
+    }
+
+    @Test
+    public void logout_ComRefreshTokenDeOutroUsuario_ManterSessaoDoOutroUsuario() {
+        JwtToken loginMaria = testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLoginDTO("maria@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JwtToken.class)
+                .returnResult().getResponseBody();
+
+        testClient
+                .post()
+                .uri("/api/v1/auth/logout")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenDTO(loginMaria.getRefreshToken()))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // A sessão pertence a outro usuário: o refresh token continua válido
+        testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenDTO(loginMaria.getRefreshToken()))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void logout_ComTokenValido_RevogarTokenESessaoComStatus204() {
+        JwtToken login = testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLoginDTO("ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JwtToken.class)
+                .returnResult().getResponseBody();
+
+        testClient
+                .get()
+                .uri("/api/v1/users/100")
+                .header(org.springframework.http.HttpHeaders.AUTHORIZATION, "Bearer " + login.getToken())
+                .exchange()
+                .expectStatus().isOk();
+
+        testClient
+                .post()
+                .uri("/api/v1/auth/logout")
+                .header(org.springframework.http.HttpHeaders.AUTHORIZATION, "Bearer " + login.getToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenDTO(login.getRefreshToken()))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // O token continua dentro do 'exp', mas foi revogado
+        testClient
+                .get()
+                .uri("/api/v1/users/100")
+                .header(org.springframework.http.HttpHeaders.AUTHORIZATION, "Bearer " + login.getToken())
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenDTO(login.getRefreshToken()))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        // Outros logins do mesmo usuário não são afetados
+        testClient
+                .get()
+                .uri("/api/v1/users/100")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk();
+    }
 }
@@ -1,16 +1,32 @@
 package com.example.park_api;
 
 import com.example.park_api.resources.dto.ClienteCreateDTO;
+import com.example.park_api.resources.dto.ClienteDetalhesResponseDTO;
+import com.example.park_api.resources.dto.ClienteImportDTO;
+import com.example.park_api.resources.dto.ClienteImportResponseDTO;
+import com.example.park_api.resources.dto.ClienteImportResultDTO;
 import com.example.park_api.resources.dto.ClienteResponseDTO;
+import com.example.park_api.resources.dto.HistoricoResponseDTO;
 import com.example.park_api.resources.dto.PageableDto;
+import com.example.park_api.resources.dto.SliceDto;
 import com.example.park_api.resources.exception.ErrorMessage;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Sql(scripts = "/sql/customers/customers-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 @Sql(scripts = "/sql/customers/customers-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
@@ -19,6 +35,12 @@ public class ClienteIT {
     @Autowired
     WebTestClient testClient;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     public void criarCliente_ComDadosValidos_RetornarClienteComStatus201() {
         ClienteResponseDTO responseBody = testClient
@@ -193,6 +215,237 @@ public class ClienteIT {
         org.assertj.core.api.Assertions.assertThat(responseBody.getTotalPages()).isEqualTo(2);
     }
 
+    @Test
+    public void buscarClientes_SemTotalPeloAdmin_RetornarClientesComStatus200() {
+        SliceDto responseBody = testClient
+                .get()
+                .uri("/api/v1/customers?withTotal=false&size=1&page=1")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(SliceDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getNumber()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.isHasNext()).isFalse();
+    }
+
+    @Test
+    public void buscarClientes_ComTotalAproximadoPeloAdmin_RetornarClientesComStatus200() {
+        PageableDto responseBody = testClient
+                .get()
+                .uri("/api/v1/customers?withTotal=approx&size=1")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PageableDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotalElements()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void buscarClientes_ComTotalAproximadoEPaginaDepoisDaUltima_RetornarTotalExatoComStatus200() {
+        PageableDto responseBody = testClient
+                .get()
+                .uri("/api/v1/customers?withTotal=approx&size=1&page=5")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PageableDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent()).isEmpty();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotalElements()).isEqualTo(2);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotalPages()).isEqualTo(2);
+    }
+
+    @Test
+    public void buscarClientes_ComCursorPeloAdmin_RetornarClientesComStatus200() {
+        SliceDto responseBody = testClient
+                .get()
+                .uri("/api/v1/customers?after=&size=1")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(SliceDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.isHasNext()).isTrue();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getNextCursor()).isNotNull();
+
+        responseBody = testClient
+                .get()
+                .uri("/api/v1/customers?after={cursor}&size=1", responseBody.getNextCursor())
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(SliceDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.isHasNext()).isFalse();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void buscarClientes_ComCursorInvalidoPeloAdmin_RetornarErrorMessageComStatus400() {
+        ErrorMessage responseBody = testClient
+                .get()
+                .uri("/api/v1/customers?after=invalido")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    public void exportarClientes_EmCsvPeloAdmin_RetornarArquivoComStatus200() {
+        String responseBody = testClient
+                .get()
+                .uri("/api/v1/customers/export?format=csv")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text/csv")
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.split("\r\n"))
+                .containsExactly("id,nome,cpf", "11,Maria Santos,89087145020", "12,Roberto Silva,92775436048");
+    }
+
+    @Test
+    public void exportarClientes_EmCsvComNomeIniciadoPorFormula_ExportarNomeComoTexto() {
+        jdbcTemplate.update("INSERT INTO customers (id, nome, cpf, id_usuario) VALUES (13, ?, '91191064085', 103)",
+                "=HYPERLINK(\"http://example.com\",\"abrir\")");
+
+        String responseBody = testClient
+                .get()
+                .uri("/api/v1/customers/export?format=csv")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        // Prefixado com apóstrofo (lido como texto pela planilha) e, por conter vírgula e aspas, entre aspas
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.split("\r\n"))
+                .contains("13,\"'=HYPERLINK(\"\"http://example.com\"\",\"\"abrir\"\")\",91191064085");
+    }
+
+    @Test
+    public void importarClientes_EmJsonPeloAdmin_RetornarRelatorioComStatus200() {
+        ClienteImportResponseDTO responseBody = testClient
+                .post()
+                .uri("/api/v1/customers/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .bodyValue(List.of(
+                        new ClienteImportDTO("Tobias Ferreira", "91191064085", "tobias@gmail.com"),
+                        new ClienteImportDTO("Bob Souza", "92775436048", "bob@gmail.com"),
+                        new ClienteImportDTO("Ana Lima", "00000000000", "ana@gmail.com"),
+                        new ClienteImportDTO("Fulano de Tal", "41725873006", "fulano@gmail.com")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ClienteImportResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotal()).isEqualTo(4);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getCriados()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getRejeitados()).isEqualTo(3);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getLinhas())
+                .extracting(ClienteImportResultDTO::getStatus)
+                .containsExactly(ClienteImportResultDTO.Status.CRIADO, ClienteImportResultDTO.Status.REJEITADO,
+                        ClienteImportResultDTO.Status.REJEITADO, ClienteImportResultDTO.Status.REJEITADO);
+
+        ClienteResponseDTO cliente = testClient
+                .get()
+                .uri("/api/v1/customers/details")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "tobias@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ClienteResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(cliente).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(cliente.getCpf()).isEqualTo("91191064085");
+    }
+
+    @Test
+    public void importarClientes_EmCsvPeloAdmin_RetornarRelatorioComStatus200() {
+        ClienteImportResponseDTO responseBody = testClient
+                .post()
+                .uri("/api/v1/customers/bulk")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .bodyValue("nome,cpf,username\r\n\"Ferreira, Tobias\",91191064085,tobias@gmail.com\r\n" +
+                        "Tobias Repetido,91191064085,tobias@gmail.com\r\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ClienteImportResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotal()).isEqualTo(2);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getCriados()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getLinhas().get(1).getStatus())
+                .isEqualTo(ClienteImportResultDTO.Status.REJEITADO);
+    }
+
+    @Test
+    public void importarClientes_PeloCliente_RetornarErrorMessageComStatus403() {
+        ErrorMessage responseBody = testClient
+                .post()
+                .uri("/api/v1/customers/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "tobias@gmail.com", "123456"))
+                .bodyValue(List.of(new ClienteImportDTO("Tobias Ferreira", "91191064085", "tobias@gmail.com")))
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(403);
+    }
+
+    @Test
+    public void buscarCliente_DetalhesRepetidos_ServidosPeloCacheDeSegundoNivel() {
+        Consumer<HttpHeaders> token = JwtAuthentication.getHeaderAuthorization(testClient, "maria@gmail.com", "123456");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        for (int i = 0; i < 2; i++) {
+            testClient
+                    .get()
+                    .uri("/api/v1/customers/details")
+                    .headers(token)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        // A segunda chamada resolve a consulta, o cliente e o histórico pelo cache, sem ir ao banco
+        org.assertj.core.api.Assertions.assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
     @Test
     public void buscarClientes_ComPaginacaoPeloCliente_RetornarErrorMessageComStatus403() {
         ErrorMessage responseBody = testClient
@@ -210,20 +463,57 @@ public class ClienteIT {
 
     @Test
     public void buscarCliente_ComDadosDoTokenDeCliente_RetornarClienteComStatus200() {
-        ClienteResponseDTO responseBody = testClient
+        ClienteDetalhesResponseDTO responseBody = testClient
                 .get()
                 .uri("/api/v1/customers/details")
                 .headers(JwtAuthentication.getHeaderAuthorization(testClient, "maria@gmail.com", "123456"))
                 .exchange()
                 .expectStatus().isOk()
-                .expectBody(ClienteResponseDTO.class)
+                .expectBody(ClienteDetalhesResponseDTO.class)
                 .returnResult().getResponseBody();
 
         org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
         org.assertj.core.api.Assertions.assertThat(responseBody.getCpf()).isEqualTo("89087145020");
         org.assertj.core.api.Assertions.assertThat(responseBody.getNome()).isEqualTo("Maria Santos");
         org.assertj.core.api.Assertions.assertThat(responseBody.getId()).isEqualTo(11);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getVisitas()).isEqualTo(2);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotalGasto()).isEqualByComparingTo("20.00");
+        org.assertj.core.api.Assertions.assertThat(responseBody.getUltimaVisita()).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotalPaginas()).isEqualTo(1);
+        // Da visita mais recente para a mais antiga
+        org.assertj.core.api.Assertions.assertThat(responseBody.getHistorico()).hasSize(2);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getHistorico().get(0).getCodigoVaga()).isEqualTo("A-02");
+        org.assertj.core.api.Assertions.assertThat(responseBody.getHistorico().get(0).getDataEntrada()).isEqualTo(LocalDateTime.of(2024, 5, 12, 17, 30));
+        org.assertj.core.api.Assertions.assertThat(responseBody.getHistorico().get(0).getValor()).isEqualByComparingTo(new BigDecimal("5.00"));
+        org.assertj.core.api.Assertions.assertThat(responseBody.getHistorico().get(1).getCodigoVaga()).isEqualTo("A-01");
+    }
+
+    @Test
+    public void buscarHistorico_ComPaginaInexistente_RetornarErrorMessageComStatus404() {
+        Consumer<HttpHeaders> token = JwtAuthentication.getHeaderAuthorization(testClient, "maria@gmail.com", "123456");
+        HistoricoResponseDTO pagina = testClient
+                .get()
+                .uri("/api/v1/customers/details/historico?pagina=0")
+                .headers(token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(HistoricoResponseDTO.class)
+                .returnResult().getResponseBody();
 
+        org.assertj.core.api.Assertions.assertThat(pagina).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(pagina.getVisitas()).hasSize(2);
+
+        ErrorMessage responseBody = testClient
+                .get()
+                .uri("/api/v1/customers/details/historico?pagina=1")
+                .headers(token)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(404);
     }
 
     @Test
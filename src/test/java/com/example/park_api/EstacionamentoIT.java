@@ -0,0 +1,416 @@
+package com.example.park_api;
+
+import com.example.park_api.entities.EstacionamentoEvento;
+import com.example.park_api.entities.Tarifa;
+import com.example.park_api.exception.EstacionamentoEmAbertoException;
+import com.example.park_api.journal.EstacionamentoJournal;
+import com.example.park_api.resources.dto.ClienteDetalhesResponseDTO;
+import com.example.park_api.resources.dto.EstacionamentoCreateDTO;
+import com.example.park_api.resources.dto.EstacionamentoResponseDTO;
+import com.example.park_api.resources.dto.HistoricoResponseDTO;
+import com.example.park_api.resources.exception.ErrorMessage;
+import com.example.park_api.services.ClienteHistoricoService;
+import com.example.park_api.services.EstacionamentoService;
+import com.example.park_api.services.TarifaService;
+import com.example.park_api.services.VagaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql(scripts = "/sql/estacionamentos/estacionamentos-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/estacionamentos/estacionamentos-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class EstacionamentoIT {
+
+    @Autowired
+    WebTestClient testClient;
+
+    @Autowired
+    VagaService vagaService;
+
+    @Autowired
+    EstacionamentoService estacionamentoService;
+
+    @Autowired
+    ClienteHistoricoService historicoService;
+
+    @Autowired
+    TarifaService tarifaService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path journalDir;
+
+    @BeforeEach
+    public void recarregar() {
+        vagaService.recarregarIndice();
+        estacionamentoService.recarregarAbertos();
+    }
+
+    // Eventos ainda no journal chegam ao banco antes do script de limpeza
+    @AfterEach
+    public void gravarPendentes() {
+        estacionamentoService.gravarPendentes();
+    }
+
+    @Test
+    public void checkIn_ComClienteEVagaLivre_RetornarReciboComStatus201() {
+        EstacionamentoResponseDTO responseBody = checkIn(admin(), "89087145020", "A")
+                .expectStatus().isCreated()
+                .expectBody(EstacionamentoResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getRecibo()).hasSize(32);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getCpf()).isEqualTo("89087145020");
+        org.assertj.core.api.Assertions.assertThat(responseBody.getCodigoVaga()).isIn("A-01", "A-02");
+        org.assertj.core.api.Assertions.assertThat(responseBody.getDataEntrada()).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getDataSaida()).isNull();
+
+        // O evento só chega ao banco no flush em lote
+        org.assertj.core.api.Assertions.assertThat(contarEventos(responseBody.getRecibo())).isZero();
+        estacionamentoService.gravarPendentes();
+        org.assertj.core.api.Assertions.assertThat(contarEventos(responseBody.getRecibo())).isEqualTo(1);
+    }
+
+    @Test
+    public void checkIn_ComCpfNaoCadastrado_RetornarErrorMessageStatus404() {
+        ErrorMessage responseBody = checkIn(admin(), "91191064085", "A")
+                .expectStatus().isNotFound()
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    public void checkIn_ComEntradaEmAberto_RetornarErrorMessageStatus409() {
+        Consumer<HttpHeaders> admin = admin();
+        checkIn(admin, "89087145020", "A").expectStatus().isCreated();
+
+        ErrorMessage responseBody = checkIn(admin, "89087145020", "A")
+                .expectStatus().isEqualTo(409)
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(409);
+        // A segunda tentativa não ocupou vaga
+        org.assertj.core.api.Assertions.assertThat(vagaService.buscarLivresPorZona()).containsEntry("A", 1);
+    }
+
+    @Test
+    public void checkIn_ComUsuarioCliente_RetornarErrorMessageStatus403() {
+        checkIn(JwtAuthentication.getHeaderAuthorization(testClient, "maria@gmail.com", "123456"), "89087145020", "A")
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    public void checkOut_ComReciboAberto_LiberarVagaERetornarSaidaComStatus200() {
+        Consumer<HttpHeaders> admin = admin();
+        String recibo = checkIn(admin, "92775436048", "A")
+                .expectStatus().isCreated()
+                .expectBody(EstacionamentoResponseDTO.class)
+                .returnResult().getResponseBody().getRecibo();
+
+        EstacionamentoResponseDTO responseBody = checkOut(admin, recibo)
+                .expectStatus().isOk()
+                .expectBody(EstacionamentoResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getRecibo()).isEqualTo(recibo);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getDataSaida()).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(vagaService.buscarLivresPorZona()).containsEntry("A", 2);
+
+        // O recibo encerrado não é aceito de novo, nem antes nem depois de a saída chegar ao banco
+        checkOut(admin, recibo).expectStatus().isNotFound();
+        estacionamentoService.gravarPendentes();
+        org.assertj.core.api.Assertions.assertThat(contarEventos(recibo)).isEqualTo(2);
+        checkOut(admin, recibo).expectStatus().isNotFound();
+
+        // O cliente pode entrar de novo
+        checkIn(admin, "92775436048", "A").expectStatus().isCreated();
+    }
+
+    @Test
+    public void checkOut_ComEntradaJaGravadaNoBanco_RetornarSaidaComStatus200() {
+        Consumer<HttpHeaders> admin = admin();
+        String recibo = checkIn(admin, "92775436048", "A")
+                .expectStatus().isCreated()
+                .expectBody(EstacionamentoResponseDTO.class)
+                .returnResult().getResponseBody().getRecibo();
+        // Simula o reinício da instância: a entrada só existe no banco
+        estacionamentoService.gravarPendentes();
+        estacionamentoService.recarregarAbertos();
+
+        checkOut(admin, recibo).expectStatus().isOk();
+    }
+
+    @Test
+    public void checkOut_RepetidoPorOutraInstanciaComVagaJaReocupada_RetornarErrorMessageStatus404SemLiberarAVaga() {
+        Consumer<HttpHeaders> admin = admin();
+        String recibo = checkIn(admin, "92775436048", "A")
+                .expectStatus().isCreated()
+                .expectBody(EstacionamentoResponseDTO.class)
+                .returnResult().getResponseBody().getRecibo();
+        estacionamentoService.gravarPendentes();
+        checkOut(admin, recibo).expectStatus().isOk();
+        Long versaoDaEntrada = jdbcTemplate.queryForObject(
+                "select versao_vaga from estacionamento_eventos where recibo = ? and tipo = 'ENTRADA'", Long.class, recibo);
+        Long vagaId = jdbcTemplate.queryForObject(
+                "select id_vaga from estacionamento_eventos where recibo = ? and tipo = 'ENTRADA'", Long.class, recibo);
+
+        // Visão de outra instância: a saída ainda não chegou ao banco e o recibo não está em memória
+        estacionamentoService.gravarPendentes();
+        jdbcTemplate.update("delete from estacionamento_eventos where recibo = ? and tipo = 'SAIDA'", recibo);
+        // Enquanto isso a vaga liberada foi ocupada de novo (as duas vagas da zona ficam ocupadas)
+        vagaService.ocupar("A");
+        vagaService.ocupar("A");
+
+        checkOut(admin, recibo).expectStatus().isNotFound();
+        // Mesmo passando da verificação, a liberação na versão da entrada não alcança a nova ocupação
+        org.assertj.core.api.Assertions.assertThat(vagaService.liberar(vagaId, "A", versaoDaEntrada)).isFalse();
+
+        org.assertj.core.api.Assertions.assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from vagas where zona = 'A' and status = 'OCUPADA'", Integer.class)).isEqualTo(2);
+        org.assertj.core.api.Assertions.assertThat(vagaService.buscarLivresPorZona()).containsEntry("A", 0);
+    }
+
+    @Test
+    public void checkIn_ComClienteJaEstacionadoPorOutraInstancia_RecusarSegundaVaga() {
+        checkIn(admin(), "89087145020", "A").expectStatus().isCreated();
+
+        // Outra instância não tem a entrada em memória: a recusa vem do CPF já gravado na vaga ocupada
+        org.assertj.core.api.Assertions.assertThatThrownBy(() -> vagaService.ocupar("A", "89087145020"))
+                .isInstanceOf(EstacionamentoEmAbertoException.class);
+        org.assertj.core.api.Assertions.assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from vagas where zona = 'A' and status = 'OCUPADA'", Integer.class)).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(vagaService.buscarLivresPorZona()).containsEntry("A", 1);
+    }
+
+    @Test
+    public void checkOut_ComReciboInexistente_RetornarErrorMessageStatus404() {
+        checkOut(admin(), "00000000000000000000000000000000").expectStatus().isNotFound();
+    }
+
+    @Test
+    public void checkOut_AposGravarNoBanco_AtualizarHistoricoDoCliente() {
+        Consumer<HttpHeaders> admin = admin();
+        Consumer<HttpHeaders> bob = JwtAuthentication.getHeaderAuthorization(testClient, "bob@gmail.com", "123456");
+        String recibo = checkIn(admin, "92775436048", "A")
+                .expectStatus().isCreated()
+                .expectBody(EstacionamentoResponseDTO.class)
+                .returnResult().getResponseBody().getRecibo();
+        EstacionamentoResponseDTO saida = checkOut(admin, recibo)
+                .expectStatus().isOk()
+                .expectBody(EstacionamentoResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        // O histórico acompanha a gravação dos eventos no banco
+        org.assertj.core.api.Assertions.assertThat(detalhes(bob).getVisitas()).isZero();
+        estacionamentoService.gravarPendentes();
+
+        ClienteDetalhesResponseDTO detalhes = detalhes(bob);
+        org.assertj.core.api.Assertions.assertThat(detalhes.getVisitas()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(detalhes.getHistorico()).hasSize(1);
+        org.assertj.core.api.Assertions.assertThat(detalhes.getHistorico().get(0).getCodigoVaga()).isEqualTo(saida.getCodigoVaga());
+        org.assertj.core.api.Assertions.assertThat(detalhes.getHistorico().get(0).getDataEntrada()).isEqualTo(saida.getDataEntrada());
+        org.assertj.core.api.Assertions.assertThat(detalhes.getHistorico().get(0).getDataSaida()).isEqualTo(saida.getDataSaida());
+    }
+
+    @Test
+    public void checkOut_ComTarifaVigente_RegistrarValorNaSaidaENoHistorico() {
+        Tarifa tarifa = new Tarifa();
+        tarifa.setFracaoMinutos(60);
+        tarifa.setFaixas(List.of(new Tarifa.Faixa(LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, new BigDecimal("5.00"))));
+        tarifaService.salvar(tarifa);
+
+        Consumer<HttpHeaders> admin = admin();
+        String recibo = checkIn(admin, "92775436048", "A")
+                .expectStatus().isCreated()
+                .expectBody(EstacionamentoResponseDTO.class)
+                .returnResult().getResponseBody().getRecibo();
+        EstacionamentoResponseDTO saida = checkOut(admin, recibo)
+                .expectStatus().isOk()
+                .expectBody(EstacionamentoResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        // A permanência do teste dura menos de um segundo: no máximo uma fração
+        org.assertj.core.api.Assertions.assertThat(saida.getValor()).isNotNull().isIn(new BigDecimal("0.00"), new BigDecimal("5.00"));
+        estacionamentoService.gravarPendentes();
+        org.assertj.core.api.Assertions.assertThat(jdbcTemplate.queryForObject(
+                "select valor from estacionamento_eventos where recibo = ? and tipo = 'SAIDA'", BigDecimal.class, recibo))
+                .isEqualByComparingTo(saida.getValor());
+        org.assertj.core.api.Assertions.assertThat(detalhes(JwtAuthentication.getHeaderAuthorization(testClient, "bob@gmail.com", "123456"))
+                .getTotalGasto()).isEqualByComparingTo(saida.getValor());
+    }
+
+    @Test
+    public void historico_ComMaisVisitasQueUmaPagina_ArquivarPaginaCheia() {
+        List<EstacionamentoEvento> saidas = IntStream.rangeClosed(1, 70).mapToObj(i -> {
+            EstacionamentoEvento saida = evento("recibo" + i);
+            saida.setTipo(EstacionamentoEvento.Tipo.SAIDA);
+            saida.setCpf("92775436048");
+            saida.setDataEntrada(saida.getDataHora().plusDays(i));
+            saida.setDataHora(saida.getDataEntrada().plusHours(1));
+            saida.setValor(new BigDecimal("2.50"));
+            return saida;
+        }).toList();
+        transactionTemplate.executeWithoutResult(status -> historicoService.registrarSaidas(saidas));
+
+        Consumer<HttpHeaders> bob = JwtAuthentication.getHeaderAuthorization(testClient, "bob@gmail.com", "123456");
+        ClienteDetalhesResponseDTO detalhes = detalhes(bob);
+        org.assertj.core.api.Assertions.assertThat(detalhes.getVisitas()).isEqualTo(70);
+        org.assertj.core.api.Assertions.assertThat(detalhes.getTotalGasto()).isEqualByComparingTo("175.00");
+        org.assertj.core.api.Assertions.assertThat(detalhes.getUltimaVisita()).isEqualTo(saidas.get(69).getDataHora().withNano(0));
+        org.assertj.core.api.Assertions.assertThat(detalhes.getTotalPaginas()).isEqualTo(2);
+        org.assertj.core.api.Assertions.assertThat(detalhes.getHistorico()).hasSize(6);
+
+        HistoricoResponseDTO anterior = testClient
+                .get()
+                .uri("/api/v1/customers/details/historico?pagina=1")
+                .headers(bob)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(HistoricoResponseDTO.class)
+                .returnResult().getResponseBody();
+        org.assertj.core.api.Assertions.assertThat(anterior).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(anterior.getVisitas()).hasSize(64);
+        org.assertj.core.api.Assertions.assertThat(anterior.getVisitas().get(0).getDataSaida())
+                .isEqualTo(saidas.get(63).getDataHora().withNano(0));
+    }
+
+    @Test
+    public void journal_AposReinicio_ReenviarApenasEventosNaoConfirmados() throws Exception {
+        EstacionamentoJournal journal = new EstacionamentoJournal(journalDir, 1024, 100, 10, 1000);
+        for (int i = 1; i <= 3; i++) {
+            org.assertj.core.api.Assertions.assertThat(journal.gravar(evento("recibo" + i), Duration.ofSeconds(2))).isEqualTo(i);
+        }
+        journal.confirmar(1);
+        journal.destroy();
+
+        // Queda no meio de uma escrita: bytes de um registro incompleto no fim do segmento
+        try (Stream<Path> segmentos = Files.list(journalDir)) {
+            Path ultimo = segmentos.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().reduce((a, b) -> b).orElseThrow();
+            Files.write(ultimo, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        }
+
+        EstacionamentoJournal reaberto = new EstacionamentoJournal(journalDir, 1024, 100, 10, 1000);
+        try {
+            List<EstacionamentoJournal.Registro> pendentes = reaberto.pendentes(10);
+            org.assertj.core.api.Assertions.assertThat(pendentes).extracting(EstacionamentoJournal.Registro::seq).containsExactly(2L, 3L);
+            org.assertj.core.api.Assertions.assertThat(pendentes.get(0).evento().getRecibo()).isEqualTo("recibo2");
+            org.assertj.core.api.Assertions.assertThat(pendentes.get(0).evento().getDataHora())
+                    .isEqualTo(LocalDateTime.of(2024, 5, 10, 8, 30, 15, 123_000_000));
+            // A numeração continua depois do último registro completo
+            org.assertj.core.api.Assertions.assertThat(reaberto.gravar(evento("recibo4"), Duration.ofSeconds(2))).isEqualTo(4);
+        } finally {
+            reaberto.destroy();
+        }
+    }
+
+    @Test
+    public void journal_ComCheckpointPerdidoEUltimoSegmentoVazio_NumerarDepoisDoSegmentoAtual() throws Exception {
+        EstacionamentoJournal journal = new EstacionamentoJournal(journalDir, 1024, 100, 10, 1000);
+        for (int i = 1; i <= 3; i++) {
+            journal.gravar(evento("recibo" + i), Duration.ofSeconds(2));
+        }
+        journal.confirmar(3);
+        journal.destroy();
+
+        // Segmento 1 apagado depois do checkpoint 3 e segmento 4 aberto, ainda vazio; a queda leva o checkpoint
+        // (gravado sem fsync) de volta a um valor antigo
+        Files.delete(journalDir.resolve("journal-00000000000000000001.log"));
+        Files.createFile(journalDir.resolve("journal-00000000000000000004.log"));
+        Files.writeString(journalDir.resolve("checkpoint"), "1");
+
+        EstacionamentoJournal reaberto = new EstacionamentoJournal(journalDir, 1024, 100, 10, 1000);
+        try {
+            org.assertj.core.api.Assertions.assertThat(reaberto.totalPendentes()).isZero();
+            org.assertj.core.api.Assertions.assertThat(reaberto.gravar(evento("recibo4"), Duration.ofSeconds(2))).isEqualTo(4);
+            reaberto.confirmar(1);
+            // O segmento em uso continua no disco
+            org.assertj.core.api.Assertions.assertThat(journalDir.resolve("journal-00000000000000000004.log")).exists();
+        } finally {
+            reaberto.destroy();
+        }
+    }
+
+    private Consumer<HttpHeaders> admin() {
+        return JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456");
+    }
+
+    private WebTestClient.ResponseSpec checkIn(Consumer<HttpHeaders> headers, String cpf, String zona) {
+        return testClient
+                .post()
+                .uri("/api/v1/estacionamentos/check-in")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers)
+                .bodyValue(new EstacionamentoCreateDTO(cpf, zona))
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec checkOut(Consumer<HttpHeaders> headers, String recibo) {
+        return testClient
+                .post()
+                .uri("/api/v1/estacionamentos/check-out/" + recibo)
+                .headers(headers)
+                .exchange();
+    }
+
+    private ClienteDetalhesResponseDTO detalhes(Consumer<HttpHeaders> headers) {
+        return testClient
+                .get()
+                .uri("/api/v1/customers/details")
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ClienteDetalhesResponseDTO.class)
+                .returnResult().getResponseBody();
+    }
+
+    private int contarEventos(String recibo) {
+        return jdbcTemplate.queryForObject("select count(*) from estacionamento_eventos where recibo = ?", Integer.class, recibo);
+    }
+
+    private static EstacionamentoEvento evento(String recibo) {
+        EstacionamentoEvento evento = new EstacionamentoEvento();
+        evento.setRecibo(recibo);
+        evento.setTipo(EstacionamentoEvento.Tipo.ENTRADA);
+        evento.setCpf("89087145020");
+        evento.setVagaId(10L);
+        evento.setCodigoVaga("A-01");
+        evento.setZona("A");
+        evento.setDataHora(LocalDateTime.of(2024, 5, 10, 8, 30, 15, 123_000_000));
+        evento.setVersaoVaga(1L);
+        return evento;
+    }
+}
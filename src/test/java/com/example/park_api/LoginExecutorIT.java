@@ -0,0 +1,79 @@
+package com.example.park_api;
+
+import com.example.park_api.jwt.LoginExecutor;
+import com.example.park_api.resources.dto.UserLoginDTO;
+import com.example.park_api.resources.exception.ErrorMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Pool de login com uma thread e uma posição na fila, para saturá-lo de forma determinística
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {"security.login.pool-size=1", "security.login.queue-capacity=1"})
+@Sql(scripts = "/sql/users/users-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/users/users-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class LoginExecutorIT {
+
+    @Autowired
+    WebTestClient testClient;
+
+    @Autowired
+    LoginExecutor loginExecutor;
+
+    @Test
+    public void autenticar_ComPoolDeLoginSaturado_RetornarErrorMessageStatus503ComRetryAfter() throws Exception {
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        // Uma autenticação ocupando a única thread e outra a única posição da fila
+        CompletableFuture<Void> ocupada = loginExecutor.submit(() -> {
+            emExecucao.countDown();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        CompletableFuture<Void> naFila;
+        try {
+            org.assertj.core.api.Assertions.assertThat(emExecucao.await(5, TimeUnit.SECONDS)).isTrue();
+            naFila = loginExecutor.submit(() -> null);
+
+            ErrorMessage responseBody = testClient
+                    .post()
+                    .uri("/api/v1/auth")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new UserLoginDTO("ana@gmail.com", "123456"))
+                    .exchange()
+                    .expectStatus().isEqualTo(503)
+                    .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                    .expectBody(ErrorMessage.class)
+                    .returnResult().getResponseBody();
+
+            org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+            org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(503);
+        } finally {
+            liberar.countDown();
+        }
+        ocupada.get(5, TimeUnit.SECONDS);
+        naFila.get(5, TimeUnit.SECONDS);
+
+        // Com o pool livre de novo, o login volta a ser atendido
+        testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLoginDTO("ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.park_api;
+
+import com.example.park_api.resources.dto.UserPasswordDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.function.Consumer;
+
+// Principal carregado do banco a cada requisição autenticada, passando pelo cache de usuários do JwtUserDetailsService.
+// O cache de segundo nível é esvaziado antes de cada medição: só o cache de usuários pode evitar o select
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "jwt.principal.mode=DATABASE")
+@Sql(scripts = "/sql/users/users-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/users/users-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PrincipalDatabaseIT {
+
+    @Autowired
+    WebTestClient testClient;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    SessionFactory sessionFactory;
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @Test
+    public void autorizar_ComUsuarioEmCache_NaoConsultarOBanco() {
+        Consumer<HttpHeaders> admin = JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456");
+
+        // Primeira requisição com o token: o usuário vem do banco e fica no cache
+        org.assertj.core.api.Assertions.assertThat(statementsDaRequisicao(admin)).isPositive();
+
+        // Seguintes: principal servido pelo cache, nenhum statement (o endpoint lê apenas o índice em memória)
+        org.assertj.core.api.Assertions.assertThat(statementsDaRequisicao(admin)).isZero();
+        org.assertj.core.api.Assertions.assertThat(statementsDaRequisicao(admin)).isZero();
+    }
+
+    @Test
+    public void autorizar_DepoisDeEditarASenha_RecarregarUsuarioDoBanco() {
+        Consumer<HttpHeaders> admin = JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456");
+        statementsDaRequisicao(admin);
+        org.assertj.core.api.Assertions.assertThat(statementsDaRequisicao(admin)).isZero();
+
+        testClient
+                .patch()
+                .uri("/api/v1/users/100")
+                .headers(admin)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserPasswordDTO("123456", "654321", "654321"))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // O commit da troca de senha remove o usuário do cache: a próxima requisição volta ao banco
+        Consumer<HttpHeaders> novoToken = JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "654321");
+        org.assertj.core.api.Assertions.assertThat(statementsDaRequisicao(novoToken)).isPositive();
+        org.assertj.core.api.Assertions.assertThat(statementsDaRequisicao(novoToken)).isZero();
+    }
+
+    private long statementsDaRequisicao(Consumer<HttpHeaders> headers) {
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+        testClient
+                .get()
+                .uri("/api/v1/vagas/livres")
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk();
+        return statistics.getPrepareStatementCount();
+    }
+}
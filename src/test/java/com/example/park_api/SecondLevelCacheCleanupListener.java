@@ -0,0 +1,17 @@
+package com.example.park_api;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+// Os scripts @Sql gravam direto no banco, sem passar pelo Hibernate; o cache de segundo nível
+// é esvaziado antes de cada teste para que nenhum teste enxergue entidades de um teste anterior
+public class SecondLevelCacheCleanupListener extends AbstractTestExecutionListener {
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+        testContext.getApplicationContext().getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+}
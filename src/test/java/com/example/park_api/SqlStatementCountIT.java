@@ -0,0 +1,147 @@
+package com.example.park_api;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.function.Consumer;
+
+// Quantidade de statements SQL preparados por endpoint: um N+1 (ex.: um select de usuário por cliente) quebra o build
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql(scripts = "/sql/customers/customers-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/customers/customers-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class SqlStatementCountIT {
+
+    @Autowired
+    WebTestClient testClient;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+    Consumer<HttpHeaders> admin;
+    Consumer<HttpHeaders> cliente;
+
+    @BeforeEach
+    public void setUp() {
+        admin = JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456");
+        cliente = JwtAuthentication.getHeaderAuthorization(testClient, "maria@gmail.com", "123456");
+        // Os logins acima carregam os usuários no cache de segundo nível; a contagem parte do cache vazio
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void buscarClientes_ComPaginacao_ExecutarSelectECount() {
+        // Com size menor que o total o Spring Data precisa do COUNT
+        get("/api/v1/customers?page=0&size=1", admin);
+
+        org.assertj.core.api.Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void buscarClientes_SemTotal_ExecutarUmSelect() {
+        get("/api/v1/customers?withTotal=false", admin);
+
+        org.assertj.core.api.Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void buscarClientes_ComCursor_ExecutarUmSelect() {
+        get("/api/v1/customers?after=", admin);
+
+        org.assertj.core.api.Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void buscarCliente_PorId_ExecutarUmSelectSemUsuario() {
+        get("/api/v1/customers/11", admin);
+
+        org.assertj.core.api.Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void buscarCliente_Detalhes_ExecutarSelectDoClienteEDoHistoricoSemUsuario() {
+        get("/api/v1/customers/details", cliente);
+
+        // Um select do cliente e uma busca por chave no histórico, qualquer que seja a quantidade de visitas
+        org.assertj.core.api.Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void exportarClientes_ExecutarUmSelect() {
+        get("/api/v1/customers/export?format=csv", admin);
+
+        org.assertj.core.api.Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void buscarUsuario_PorId_ExecutarUmSelect() {
+        get("/api/v1/users/101", cliente);
+
+        org.assertj.core.api.Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void listarUsuarios_ExecutarUmSelect() {
+        get("/api/v1/users", admin);
+
+        org.assertj.core.api.Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void autenticar_ExecutarUmSelectDeUsuario() {
+        testClient
+                .post()
+                .uri("/api/v1/auth")
+                .bodyValue(new com.example.park_api.resources.dto.UserLoginDTO("ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk();
+
+        // O token é montado com o usuário carregado na autenticação: um select de usuário e o insert da sessão de refresh
+        org.assertj.core.api.Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        // Nenhuma consulta JPQL adicional (a antiga busca da role por LIKE)
+        org.assertj.core.api.Assertions.assertThat(statistics.getQueryExecutionCount()).isZero();
+    }
+
+    @Test
+    public void renovarToken_ExecutarUmSelectEUmUpdate() {
+        String refreshToken = testClient
+                .post()
+                .uri("/api/v1/auth")
+                .bodyValue(new com.example.park_api.resources.dto.UserLoginDTO("ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(com.example.park_api.jwt.JwtToken.class)
+                .returnResult().getResponseBody().getRefreshToken();
+        statistics.clear();
+
+        testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .bodyValue(new com.example.park_api.resources.dto.RefreshTokenDTO(refreshToken))
+                .exchange()
+                .expectStatus().isOk();
+
+        // Consulta pelo hash (com os dados do usuário) e rotação do token; nenhum acesso à senha
+        org.assertj.core.api.Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private void get(String uri, Consumer<HttpHeaders> token) {
+        testClient
+                .get()
+                .uri(uri)
+                .headers(token)
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
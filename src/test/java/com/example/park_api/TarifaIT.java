@@ -0,0 +1,154 @@
+package com.example.park_api;
+
+import com.example.park_api.entities.Tarifa;
+import com.example.park_api.resources.dto.TarifaCreateDTO;
+import com.example.park_api.resources.dto.TarifaDescontoDTO;
+import com.example.park_api.resources.dto.TarifaFaixaDTO;
+import com.example.park_api.resources.dto.TarifaRecalculoResponseDTO;
+import com.example.park_api.resources.dto.TarifaResponseDTO;
+import com.example.park_api.resources.exception.ErrorMessage;
+import com.example.park_api.services.TabelaTarifa;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql(scripts = "/sql/tarifas/tarifas-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/tarifas/tarifas-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class TarifaIT {
+
+    @Autowired
+    WebTestClient testClient;
+
+    @Test
+    public void criarTarifa_ComDadosValidos_RetornarTarifaVigenteComStatus201() {
+        TarifaResponseDTO responseBody = criar("ana@gmail.com", tarifaDiurnaENoturna())
+                .expectStatus().isCreated()
+                .expectBody(TarifaResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getId()).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getFaixas()).hasSize(2);
+
+        TarifaResponseDTO vigente = testClient
+                .get()
+                .uri("/api/v1/tarifas/vigente")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TarifaResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(vigente).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(vigente.getId()).isEqualTo(responseBody.getId());
+        org.assertj.core.api.Assertions.assertThat(vigente.getTetoDiario()).isEqualByComparingTo("40.00");
+        org.assertj.core.api.Assertions.assertThat(vigente.getDescontos()).hasSize(2);
+    }
+
+    @Test
+    public void criarTarifa_ComFaixasSobrepostas_RetornarErrorMessageStatus422() {
+        TarifaCreateDTO dto = tarifaDiurnaENoturna();
+        dto.getFaixas().add(new TarifaFaixaDTO(LocalTime.of(12, 0), LocalTime.of(13, 0), new BigDecimal("9.00")));
+
+        ErrorMessage responseBody = criar("ana@gmail.com", dto)
+                .expectStatus().isEqualTo(422)
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    public void criarTarifa_ComFracaoQueNaoDivideODia_RetornarErrorMessageStatus422() {
+        TarifaCreateDTO dto = tarifaDiurnaENoturna();
+        dto.setFracaoMinutos(7);
+
+        criar("ana@gmail.com", dto).expectStatus().isEqualTo(422);
+    }
+
+    @Test
+    public void criarTarifa_ComUsuarioCliente_RetornarErrorMessageStatus403() {
+        criar("maria@gmail.com", tarifaDiurnaENoturna()).expectStatus().isForbidden();
+    }
+
+    @Test
+    public void calcular_ComFaixasTetoEDescontos_CobrarFracoesPelaFaixaDeInicio() {
+        Tarifa tarifa = new Tarifa();
+        tarifa.setFracaoMinutos(30);
+        tarifa.setTetoDiario(new BigDecimal("40.00"));
+        tarifa.setFaixas(List.of(
+                new Tarifa.Faixa(LocalTime.of(7, 0), LocalTime.of(19, 0), new BigDecimal("3.00")),
+                new Tarifa.Faixa(LocalTime.of(19, 0), LocalTime.of(7, 0), new BigDecimal("1.00"))));
+        tarifa.setDescontos(List.of(new Tarifa.Desconto(5, 10), new Tarifa.Desconto(10, 20)));
+        TabelaTarifa tabela = TabelaTarifa.compilar(tarifa);
+        LocalDateTime manha = LocalDateTime.of(2024, 5, 10, 8, 0);
+
+        // 70 minutos: três frações diurnas iniciadas
+        org.assertj.core.api.Assertions.assertThat(tabela.calcular(manha, manha.plusMinutes(70), 0)).isEqualTo(900);
+        // Uma fração diurna (18:30) e uma noturna (19:00)
+        org.assertj.core.api.Assertions.assertThat(tabela.calcular(manha.withHour(18).withMinute(30), manha.withHour(19).withMinute(30), 0))
+                .isEqualTo(400);
+        // Atravessando a meia-noite
+        org.assertj.core.api.Assertions.assertThat(tabela.calcular(manha.withHour(23).withMinute(45), manha.plusDays(1).withHour(0).withMinute(20), 0))
+                .isEqualTo(200);
+        // Três períodos de 24h: 96,00 por dia limitados ao teto de 40,00
+        org.assertj.core.api.Assertions.assertThat(tabela.calcular(manha, manha.plusDays(3), 0)).isEqualTo(12000);
+        // Descontos a partir de 5 e de 10 visitas
+        org.assertj.core.api.Assertions.assertThat(tabela.calcular(manha, manha.plusMinutes(70), 5)).isEqualTo(810);
+        org.assertj.core.api.Assertions.assertThat(tabela.calcular(manha, manha.plusMinutes(70), 12)).isEqualTo(720);
+        org.assertj.core.api.Assertions.assertThat(tabela.calcular(manha, manha, 0)).isZero();
+    }
+
+    @Test
+    public void recalcularDia_ComTarifaVigente_RetornarTotaisComStatus200() {
+        // 5,00 por hora o dia inteiro e metade do preço a partir da segunda visita
+        TarifaCreateDTO dto = new TarifaCreateDTO(60, null,
+                new ArrayList<>(List.of(new TarifaFaixaDTO(LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, new BigDecimal("5.00")))),
+                new ArrayList<>(List.of(new TarifaDescontoDTO(1, 50))));
+        criar("ana@gmail.com", dto).expectStatus().isCreated();
+
+        TarifaRecalculoResponseDTO responseBody = testClient
+                .post()
+                .uri("/api/v1/tarifas/recalcular?dia=2024-05-10")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TarifaRecalculoResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTickets()).isEqualTo(2);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotalCobrado()).isEqualByComparingTo("4.00");
+        // 1h com uma visita anterior (2,50) e 2h com duas (5,00)
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotalRecalculado()).isEqualByComparingTo("7.50");
+    }
+
+    private WebTestClient.ResponseSpec criar(String username, TarifaCreateDTO dto) {
+        return testClient
+                .post()
+                .uri("/api/v1/tarifas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, username, "123456"))
+                .bodyValue(dto)
+                .exchange();
+    }
+
+    private static TarifaCreateDTO tarifaDiurnaENoturna() {
+        return new TarifaCreateDTO(30, new BigDecimal("40.00"),
+                new ArrayList<>(List.of(
+                        new TarifaFaixaDTO(LocalTime.of(7, 0), LocalTime.of(19, 0), new BigDecimal("3.00")),
+                        new TarifaFaixaDTO(LocalTime.of(19, 0), LocalTime.of(7, 0), new BigDecimal("1.00")))),
+                new ArrayList<>(List.of(new TarifaDescontoDTO(5, 10), new TarifaDescontoDTO(10, 20))));
+    }
+}
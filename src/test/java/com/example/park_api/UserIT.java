@@ -1,6 +1,7 @@
 package com.example.park_api;
 
 import com.example.park_api.resources.dto.UserCreateDTO;
+import com.example.park_api.resources.dto.UserLoginDTO;
 import com.example.park_api.resources.dto.UserPasswordDTO;
 import com.example.park_api.resources.dto.UserResponseDTO;
 import com.example.park_api.resources.exception.ErrorMessage;
@@ -234,6 +235,64 @@ public class UserIT {
                 .expectStatus().isNoContent();
     }
 
+    @Test
+    public void editPassword_ComDadosValidos_AutenticarSomenteComNovaSenha() {
+        java.util.function.Consumer<org.springframework.http.HttpHeaders> tokenAntigo =
+                JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456");
+        String refreshToken = testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLoginDTO("ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(com.example.park_api.jwt.JwtToken.class)
+                .returnResult().getResponseBody().getRefreshToken();
+
+        testClient
+                .patch()
+                .uri("/api/v1/users/100")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserPasswordDTO("123456", "654321", "654321"))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // O usuário em cache precisa refletir a nova senha logo após o commit
+        testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLoginDTO("ana@gmail.com", "654321"))
+                .exchange()
+                .expectStatus().isOk();
+
+        testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLoginDTO("ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        // Sessões abertas com a senha antiga são encerradas
+        testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new com.example.park_api.resources.dto.RefreshTokenDTO(refreshToken))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        // Tokens emitidos antes da troca são revogados mesmo sem ter expirado
+        testClient
+                .get()
+                .uri("/api/v1/users/100")
+                .headers(tokenAntigo)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
     @Test
     public void editPassword_ComUsuariosDiferentes_RetornarErrorMessageComStatus403() {
         ErrorMessage responseBody = testClient
@@ -340,4 +399,22 @@ public class UserIT {
         org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
         org.assertj.core.api.Assertions.assertThat(responseBody.size()).isEqualTo(3);
     }
+
+    @Test
+    public void exportarUsuarios_EmNdjsonPeloAdmin_RetornarUmUsuarioPorLinhaComStatus200() {
+        String responseBody = testClient
+                .get()
+                .uri("/api/v1/users/export")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("application/x-ndjson")
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.split("\n")).hasSize(3);
+        org.assertj.core.api.Assertions.assertThat(responseBody)
+                .startsWith("{\"id\":100,\"username\":\"ana@gmail.com\",\"role\":\"ADMIN\"}");
+    }
 }
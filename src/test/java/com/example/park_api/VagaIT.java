@@ -0,0 +1,431 @@
+package com.example.park_api;
+
+import com.example.park_api.resources.dto.OcupacaoResponseDTO;
+import com.example.park_api.resources.dto.VagaCreateDTO;
+import com.example.park_api.resources.dto.VagaResponseDTO;
+import com.example.park_api.repositories.VagaRepository;
+import com.example.park_api.repositories.projection.VagaProjection;
+import com.example.park_api.resources.exception.ErrorMessage;
+import com.example.park_api.services.OcupacaoPorZona;
+import com.example.park_api.services.VagaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql(scripts = "/sql/vagas/vagas-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/vagas/vagas-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class VagaIT {
+
+    @Autowired
+    WebTestClient testClient;
+
+    @LocalServerPort
+    int porta;
+
+    @Autowired
+    VagaService vagaService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    VagaRepository vagaRepository;
+
+    @Autowired
+    OcupacaoPorZona ocupacaoPorZona;
+
+    // As vagas dos scripts são inseridas direto no banco: o índice é recarregado antes de cada teste
+    @BeforeEach
+    public void recarregarIndice() {
+        vagaService.recarregarIndice();
+    }
+
+    @Test
+    public void criarVaga_ComDadosValidos_RetornarVagaLivreComStatus201() {
+        VagaResponseDTO responseBody = testClient
+                .post()
+                .uri("/api/v1/vagas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .bodyValue(new VagaCreateDTO("A-04", "A"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(VagaResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getId()).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getCodigo()).isEqualTo("A-04");
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo("LIVRE");
+
+        // A vaga nova já entra no índice
+        org.assertj.core.api.Assertions.assertThat(buscarLivres()).containsEntry("A", 4).containsEntry("B", 0);
+    }
+
+    @Test
+    public void criarVaga_ComCodigoJaCadastrado_RetornarErrorMessageStatus409() {
+        ErrorMessage responseBody = testClient
+                .post()
+                .uri("/api/v1/vagas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .bodyValue(new VagaCreateDTO("A-01", "A"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    public void criarVaga_ComUsuarioCliente_RetornarErrorMessageStatus403() {
+        testClient
+                .post()
+                .uri("/api/v1/vagas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "maria@gmail.com", "123456"))
+                .bodyValue(new VagaCreateDTO("A-04", "A"))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    public void ocuparVaga_ComPortoesConcorrentes_OcuparCadaVagaUmaUnicaVez() throws Exception {
+        Consumer<HttpHeaders> admin = JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456");
+        ExecutorService portoes = Executors.newFixedThreadPool(10);
+        List<Future<EntityExchangeResult<VagaResponseDTO>>> respostas = new ArrayList<>();
+        try {
+            for (int i = 0; i < 10; i++) {
+                respostas.add(portoes.submit(() -> testClient
+                        .post()
+                        .uri("/api/v1/vagas/ocupar?zona=A")
+                        .headers(admin)
+                        .exchange()
+                        .expectBody(VagaResponseDTO.class)
+                        .returnResult()));
+            }
+            List<Long> ocupadas = new ArrayList<>();
+            int semVaga = 0;
+            for (Future<EntityExchangeResult<VagaResponseDTO>> resposta : respostas) {
+                EntityExchangeResult<VagaResponseDTO> result = resposta.get();
+                if (result.getStatus().value() == 200) {
+                    ocupadas.add(result.getResponseBody().getId());
+                } else if (result.getStatus().value() == 409) {
+                    semVaga++;
+                }
+            }
+
+            org.assertj.core.api.Assertions.assertThat(ocupadas).containsExactlyInAnyOrder(10L, 11L, 12L);
+            org.assertj.core.api.Assertions.assertThat(semVaga).isEqualTo(7);
+        } finally {
+            portoes.shutdown();
+        }
+
+        org.assertj.core.api.Assertions.assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from vagas where zona = 'A' and status = 'OCUPADA' and versao = 1", Integer.class)).isEqualTo(3);
+        org.assertj.core.api.Assertions.assertThat(buscarLivres()).containsEntry("A", 0);
+    }
+
+    @Test
+    public void ocuparVaga_ComIndiceDesatualizado_OcuparVagaLivreNoBanco() {
+        // Outra instância ocupou duas vagas sem passar por este índice
+        jdbcTemplate.update("update vagas set status = 'OCUPADA', versao = versao + 1 where id in (10, 11)");
+
+        VagaResponseDTO responseBody = testClient
+                .post()
+                .uri("/api/v1/vagas/ocupar?zona=A")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(VagaResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getId()).isEqualTo(12L);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo("OCUPADA");
+    }
+
+    @Test
+    public void ocuparVaga_ComZonaLotada_RetornarErrorMessageStatus409() {
+        ErrorMessage responseBody = testClient
+                .post()
+                .uri("/api/v1/vagas/ocupar?zona=B")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    public void ocuparVaga_ComZonaInexistente_RetornarErrorMessageStatus404() {
+        testClient
+                .post()
+                .uri("/api/v1/vagas/ocupar?zona=Z")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void liberarVaga_ComVagaOcupada_TornarVagaDisponivelComStatus204() {
+        Consumer<HttpHeaders> admin = JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456");
+        testClient
+                .post()
+                .uri("/api/v1/vagas/20/liberar")
+                .headers(admin)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        VagaResponseDTO responseBody = testClient
+                .post()
+                .uri("/api/v1/vagas/ocupar?zona=B")
+                .headers(admin)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(VagaResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getId()).isEqualTo(20L);
+        org.assertj.core.api.Assertions.assertThat(jdbcTemplate.queryForObject(
+                "select versao from vagas where id = 20", Long.class)).isEqualTo(5L);
+    }
+
+    @Test
+    public void liberarVaga_ComIdInexistente_RetornarErrorMessageStatus404() {
+        testClient
+                .post()
+                .uri("/api/v1/vagas/99/liberar")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void buscarOcupacao_AposOcuparELiberarVagas_RetornarContagemPorZonaComStatus200() {
+        Consumer<HttpHeaders> admin = JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456");
+        org.assertj.core.api.Assertions.assertThat(buscarOcupacao(admin))
+                .extracting(OcupacaoResponseDTO::getZona, OcupacaoResponseDTO::getVagas, OcupacaoResponseDTO::getOcupadas)
+                .containsExactly(
+                        org.assertj.core.groups.Tuple.tuple("A", 3, 0L),
+                        org.assertj.core.groups.Tuple.tuple("B", 1, 1L));
+
+        testClient.post().uri("/api/v1/vagas/ocupar?zona=A").headers(admin).exchange().expectStatus().isOk();
+        testClient.post().uri("/api/v1/vagas/ocupar?zona=A").headers(admin).exchange().expectStatus().isOk();
+        testClient.post().uri("/api/v1/vagas/20/liberar").headers(admin).exchange().expectStatus().isNoContent();
+        // Liberar de novo uma vaga livre não altera a contagem
+        testClient.post().uri("/api/v1/vagas/20/liberar").headers(admin).exchange().expectStatus().isNoContent();
+
+        List<OcupacaoResponseDTO> ocupacao = buscarOcupacao(admin);
+        org.assertj.core.api.Assertions.assertThat(ocupacao)
+                .extracting(OcupacaoResponseDTO::getZona, OcupacaoResponseDTO::getOcupadas, OcupacaoResponseDTO::getLivres)
+                .containsExactly(
+                        org.assertj.core.groups.Tuple.tuple("A", 2L, 1L),
+                        org.assertj.core.groups.Tuple.tuple("B", 0L, 1L));
+    }
+
+    @Test
+    public void recarregarOcupacao_ComVagaOcupadaPorOutraInstancia_CorrigirContagem() {
+        jdbcTemplate.update("UPDATE vagas SET status = 'OCUPADA', versao = versao + 1 WHERE id = 10");
+
+        OcupacaoPorZona.Recontagem recontagem = ocupacaoPorZona.iniciarRecontagem();
+        List<VagaProjection> vagas = vagaRepository.findAllEstados();
+
+        org.assertj.core.api.Assertions.assertThat(ocupacaoPorZona.recarregar(recontagem, vagas)).isTrue();
+        org.assertj.core.api.Assertions.assertThat(ocupacaoPorZona.consultar())
+                .extracting(OcupacaoPorZona.Zona::zona, OcupacaoPorZona.Zona::ocupadas)
+                .containsExactly(
+                        org.assertj.core.groups.Tuple.tuple("A", 1L),
+                        org.assertj.core.groups.Tuple.tuple("B", 1L));
+    }
+
+    @Test
+    public void recarregarOcupacao_ComVagaOcupadaDepoisDaLeituraDoBanco_AdiarRecontagemSemApagarOcupacao() {
+        OcupacaoPorZona.Recontagem recontagem = ocupacaoPorZona.iniciarRecontagem();
+        List<VagaProjection> vagas = vagaRepository.findAllEstados();
+        // Ocupação gravada entre a leitura do banco e a correção: a leitura ainda mostra a vaga livre
+        vagaService.ocupar("A");
+
+        org.assertj.core.api.Assertions.assertThat(ocupacaoPorZona.recarregar(recontagem, vagas)).isFalse();
+        org.assertj.core.api.Assertions.assertThat(ocupacaoPorZona.consultar())
+                .extracting(OcupacaoPorZona.Zona::zona, OcupacaoPorZona.Zona::ocupadas)
+                .containsExactly(
+                        org.assertj.core.groups.Tuple.tuple("A", 1L),
+                        org.assertj.core.groups.Tuple.tuple("B", 1L));
+    }
+
+    @Test
+    public void buscarOcupacao_ComUsuarioCliente_RetornarErrorMessageStatus403() {
+        testClient
+                .get()
+                .uri("/api/v1/vagas/ocupacao")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "maria@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    public void acompanharOcupacao_AoOcuparVaga_ReceberRetratoAtualENovoEvento() {
+        AtomicInteger recebidos = new AtomicInteger();
+        List<ServerSentEvent<String>> eventos = testClient
+                .get()
+                .uri("/api/v1/vagas/ocupacao/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody()
+                // O primeiro evento é o retrato atual; a ocupação feita depois dele chega no próximo tick
+                .doOnNext(evento -> {
+                    if (recebidos.getAndIncrement() == 0) {
+                        vagaService.ocupar("A");
+                    }
+                })
+                .take(2)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        org.assertj.core.api.Assertions.assertThat(eventos).hasSize(2);
+        org.assertj.core.api.Assertions.assertThat(eventos.get(0).event()).isEqualTo("ocupacao");
+        org.assertj.core.api.Assertions.assertThat(eventos.get(0).data()).contains("\"zona\":\"A\",\"vagas\":3,\"ocupadas\":0");
+        org.assertj.core.api.Assertions.assertThat(eventos.get(1).data()).contains("\"zona\":\"A\",\"vagas\":3,\"ocupadas\":1");
+    }
+
+    @Test
+    public void acompanharOcupacao_AlemDoTimeoutPadraoDasRequisicoesAssincronas_ManterStreamAberto() {
+        long inicio = System.nanoTime();
+        List<Long> chegadas = testClient
+                .get()
+                .uri("/api/v1/vagas/ocupacao/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody()
+                .map(evento -> Duration.ofNanos(System.nanoTime() - inicio).toMillis())
+                .take(Duration.ofMillis(3500))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        // Nos testes o timeout padrão é de 1s: os heartbeats (1s) continuam chegando depois dele
+        org.assertj.core.api.Assertions.assertThat(chegadas).isNotEmpty();
+        org.assertj.core.api.Assertions.assertThat(chegadas.get(chegadas.size() - 1)).isGreaterThan(2000L);
+    }
+
+    @Test
+    public void acompanharOcupacao_ComPaineisQueNaoLeemOStream_ContinuarEnviandoAosDemais() throws Exception {
+        // Muitas zonas deixam cada retrato com centenas de KB: os buffers TCP de quem não lê enchem em poucos eventos
+        List<Object[]> zonas = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            zonas.add(new Object[]{1000L + i, "Z" + i, "Z" + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO vagas (id, codigo, zona, status, versao) VALUES (?, ?, ?, 'LIVRE', 0)", zonas);
+        vagaService.recarregarIndice();
+        Consumer<HttpHeaders> admin = JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456");
+        HttpHeaders headers = new HttpHeaders();
+        admin.accept(headers);
+
+        // Mais painéis parados do que threads em um pool fixo de envios
+        List<Socket> parados = new ArrayList<>();
+        ScheduledExecutorService portao = Executors.newSingleThreadScheduledExecutor();
+        try {
+            for (int i = 0; i < 20; i++) {
+                Socket socket = new Socket();
+                socket.setReceiveBufferSize(1024);
+                socket.connect(new InetSocketAddress("localhost", porta));
+                socket.getOutputStream().write(("GET /api/v1/vagas/ocupacao/stream HTTP/1.1\r\n" +
+                        "Host: localhost\r\n" +
+                        "Accept: text/event-stream\r\n" +
+                        "Authorization: " + headers.getFirst(HttpHeaders.AUTHORIZATION) + "\r\n\r\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+                socket.getOutputStream().flush();
+                parados.add(socket);
+            }
+            // Uma zona ocupada a cada 100ms: cada tick gera um retrato novo para todos os painéis
+            AtomicInteger proxima = new AtomicInteger();
+            portao.scheduleWithFixedDelay(() -> vagaService.ocupar("Z" + proxima.getAndIncrement()),
+                    0, 100, TimeUnit.MILLISECONDS);
+
+            long inicio = System.nanoTime();
+            List<Long> chegadas = testClient
+                    .get()
+                    .uri("/api/v1/vagas/ocupacao/stream")
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .headers(admin)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                    .getResponseBody()
+                    .map(evento -> Duration.ofNanos(System.nanoTime() - inicio).toMillis())
+                    .take(Duration.ofSeconds(6))
+                    .collectList()
+                    .block(Duration.ofSeconds(15));
+
+            // Com os painéis parados já presos na escrita, o painel que lê segue recebendo os retratos até o fim
+            org.assertj.core.api.Assertions.assertThat(chegadas).hasSizeGreaterThan(15);
+            org.assertj.core.api.Assertions.assertThat(chegadas.get(chegadas.size() - 1)).isGreaterThan(5000L);
+        } finally {
+            portao.shutdownNow();
+            portao.awaitTermination(5, TimeUnit.SECONDS);
+            for (Socket socket : parados) {
+                socket.close();
+            }
+        }
+    }
+
+    private List<OcupacaoResponseDTO> buscarOcupacao(Consumer<HttpHeaders> headers) {
+        return testClient
+                .get()
+                .uri("/api/v1/vagas/ocupacao")
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(OcupacaoResponseDTO.class)
+                .returnResult().getResponseBody();
+    }
+
+    private Map<String, Integer> buscarLivres() {
+        return testClient
+                .get()
+                .uri("/api/v1/vagas/livres")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@gmail.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<Map<String, Integer>>() {})
+                .returnResult().getResponseBody();
+    }
+}
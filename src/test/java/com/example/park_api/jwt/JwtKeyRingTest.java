@@ -0,0 +1,139 @@
+package com.example.park_api.jwt;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Ciclo de vida das chaves com durações em segundos: rotação de 4s, próxima chave publicada 2s antes e a anterior
+// aceita por mais 2s depois da troca. Os instantes são medidos a partir do 'activeFrom' da primeira chave
+public class JwtKeyRingTest {
+
+    private static final Duration ROTATION = Duration.ofSeconds(4);
+    private static final Duration PREPUBLISH = Duration.ofSeconds(2);
+    private static final Duration OVERLAP = Duration.ofSeconds(2);
+    // Folga depois de cada marco, para o teste não depender do instante exato do relógio
+    private static final Duration MARGEM = Duration.ofMillis(300);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void rotacionar_AoLongoDoCicloDeVida_PrepublicarTrocarEDescartarChaves() throws Exception {
+        JwtKeyRing ring = new JwtKeyRing(dir, ROTATION, PREPUBLISH, OVERLAP);
+        JwtKeyRing.SigningKey primeira = ring.signingKey();
+        Instant inicio = primeira.activeFrom();
+        org.assertj.core.api.Assertions.assertThat(kids(ring)).containsExactly(primeira.kid());
+
+        // A 'prepublish' do fim da rotação: a próxima chave entra no JWKS, mas a primeira continua assinando
+        esperarAte(inicio.plus(ROTATION).minus(PREPUBLISH).plus(MARGEM));
+        ring.refresh();
+        org.assertj.core.api.Assertions.assertThat(kids(ring)).hasSize(2).contains(primeira.kid());
+        String proxima = kids(ring).stream().filter(kid -> !kid.equals(primeira.kid())).findFirst().orElseThrow();
+        org.assertj.core.api.Assertions.assertThat(ring.signingKey().kid()).isEqualTo(primeira.kid());
+        org.assertj.core.api.Assertions.assertThat(ring.verificationKey(proxima)).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(arquivos()).hasSize(2);
+
+        // No 'activeFrom' da próxima a assinatura troca de chave, mesmo sem a recarga agendada
+        esperarAte(inicio.plus(ROTATION).plus(MARGEM));
+        JwtKeyRing.SigningKey segunda = ring.signingKey();
+        org.assertj.core.api.Assertions.assertThat(segunda.kid()).isEqualTo(proxima);
+        // activeFrom é gravado no arquivo em milissegundos
+        org.assertj.core.api.Assertions.assertThat(segunda.activeFrom())
+                .isEqualTo(inicio.plus(ROTATION).truncatedTo(ChronoUnit.MILLIS));
+        // Tokens assinados pela primeira ainda são verificados durante o 'overlap'
+        org.assertj.core.api.Assertions.assertThat(ring.verificationKey(primeira.kid())).isEqualTo(primeira.publicKey());
+
+        // Passado o 'overlap' a primeira sai do JWKS, da verificação e do diretório
+        esperarAte(inicio.plus(ROTATION).plus(OVERLAP).plus(MARGEM));
+        ring.refresh();
+        org.assertj.core.api.Assertions.assertThat(kids(ring)).doesNotContain(primeira.kid()).contains(proxima);
+        org.assertj.core.api.Assertions.assertThat(ring.verificationKey(primeira.kid())).isNull();
+        org.assertj.core.api.Assertions.assertThat(arquivos()).doesNotContain(primeira.kid() + ".key");
+        org.assertj.core.api.Assertions.assertThat(ring.signingKey().kid()).isEqualTo(proxima);
+    }
+
+    @Test
+    public void rotacionar_DuasInstanciasNoMesmoDiretorio_AssinarEPublicarAsMesmasChaves() throws Exception {
+        JwtKeyRing ring1 = new JwtKeyRing(dir, ROTATION, PREPUBLISH, OVERLAP);
+        JwtKeyRing ring2 = new JwtKeyRing(dir, ROTATION, PREPUBLISH, OVERLAP);
+        Instant inicio = ring1.signingKey().activeFrom();
+
+        // A segunda instância encontra a chave da primeira em vez de criar outra
+        org.assertj.core.api.Assertions.assertThat(ring2.signingKey().kid()).isEqualTo(ring1.signingKey().kid());
+        org.assertj.core.api.Assertions.assertThat(arquivos()).hasSize(1);
+
+        // A próxima chave é criada por uma instância só; a outra a lê do diretório na sua recarga
+        esperarAte(inicio.plus(ROTATION).minus(PREPUBLISH).plus(MARGEM));
+        ring1.refresh();
+        ring2.refresh();
+        org.assertj.core.api.Assertions.assertThat(arquivos()).hasSize(2);
+        org.assertj.core.api.Assertions.assertThat(kids(ring2)).containsExactlyElementsOf(kids(ring1));
+
+        esperarAte(inicio.plus(ROTATION).plus(MARGEM));
+        org.assertj.core.api.Assertions.assertThat(ring2.signingKey().kid()).isEqualTo(ring1.signingKey().kid());
+        org.assertj.core.api.Assertions.assertThat(arquivos()).hasSize(2);
+    }
+
+    @Test
+    public void verificar_ComKidDesconhecido_RelerODiretorioNoMaximoACada5s(@TempDir Path outroDir) throws Exception {
+        JwtKeyRing ring = new JwtKeyRing(dir, ROTATION, PREPUBLISH, OVERLAP);
+
+        // Chaves criadas por outra instância depois da última recarga deste ring
+        String nova = copiarChaveDeOutraInstancia(outroDir.resolve("a"));
+        org.assertj.core.api.Assertions.assertThat(ring.verificationKey(nova)).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(kids(ring)).contains(nova);
+
+        // Logo em seguida um 'kid' desconhecido não provoca outra releitura (tokens forjados não custam I/O)
+        String maisNova = copiarChaveDeOutraInstancia(outroDir.resolve("b"));
+        org.assertj.core.api.Assertions.assertThat(ring.verificationKey(maisNova)).isNull();
+        org.assertj.core.api.Assertions.assertThat(ring.verificationKey("kid-inexistente")).isNull();
+
+        // A recarga agendada encontra a chave normalmente
+        ring.refresh();
+        org.assertj.core.api.Assertions.assertThat(ring.verificationKey(maisNova)).isNotNull();
+    }
+
+    @Test
+    public void criarChaves_SemDiretorioCompartilhadoQuandoExigido_FalharNaInicializacao() {
+        // Perfil prod: chaves só em memória fariam cada instância recusar os tokens das outras
+        org.assertj.core.api.Assertions.assertThatThrownBy(() -> new JwtKeyRing("",
+                        Duration.ofDays(1), Duration.ofMinutes(10), Duration.ofMinutes(35), true))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jwt.keys.dir");
+    }
+
+    // Cria uma chave em outro diretório e a copia para o compartilhado, como se outra instância a tivesse gravado
+    private String copiarChaveDeOutraInstancia(Path outroDir) throws IOException {
+        String kid = new JwtKeyRing(outroDir, ROTATION, PREPUBLISH, OVERLAP).signingKey().kid();
+        Files.copy(outroDir.resolve(kid + ".key"), dir.resolve(kid + ".key"));
+        return kid;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> kids(JwtKeyRing ring) {
+        List<Map<String, String>> keys = (List<Map<String, String>>) ring.jwks().get("keys");
+        return keys.stream().map(key -> key.get("kid")).toList();
+    }
+
+    private List<String> arquivos() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".key")).toList();
+        }
+    }
+
+    private static void esperarAte(Instant instante) throws InterruptedException {
+        long espera = Duration.between(Instant.now(), instante).toMillis();
+        if (espera > 0) {
+            Thread.sleep(espera);
+        }
+    }
+}
@@ -1,2 +1,6 @@
+DELETE FROM clientes_historico_paginas;
+DELETE FROM clientes_historico;
+DELETE FROM revoked_tokens;
+DELETE FROM refresh_tokens;
 DELETE FROM customers;
 DELETE FROM users;
\ No newline at end of file
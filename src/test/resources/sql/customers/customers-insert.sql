@@ -4,4 +4,9 @@ INSERT INTO users (id, username, password, role) VALUES (102, 'bob@gmail.com', '
 INSERT INTO users (id, username, password, role) VALUES (103, 'tobias@gmail.com', '$2a$12$owXthEOpMCf19KQFz/u8y.Cd3pJXBtf4Z7q2vm9TGUeFAy2HRiTC6', 'ROLE_CLIENTE');
 
 INSERT INTO customers (id, nome, cpf, id_usuario) VALUES (11, 'Maria Santos', '89087145020', 101);
-INSERT INTO customers (id, nome, cpf, id_usuario) VALUES (12, 'Roberto Silva', '92775436048', 102);
\ No newline at end of file
+INSERT INTO customers (id, nome, cpf, id_usuario) VALUES (12, 'Roberto Silva', '92775436048', 102);
+
+-- Histórico de Maria: duas visitas na página atual (layout de PaginaHistorico), nenhuma página arquivada
+INSERT INTO clientes_historico (cpf, visitas, total_gasto, ultima_visita, paginas_arquivadas, pagina_atual, versao)
+VALUES ('89087145020', 2, 20.00, '2024-05-12 18:00:00', 0,
+        X'020000018F620D74400000018F6DF6290000001C2000000708000005DC000001F4412D3031000000000000412D3032000000000000', 0);
@@ -0,0 +1,11 @@
+DELETE FROM tarifas_descontos;
+DELETE FROM tarifas_faixas;
+DELETE FROM tarifas;
+DELETE FROM clientes_historico_paginas;
+DELETE FROM clientes_historico;
+DELETE FROM estacionamento_eventos;
+DELETE FROM vagas;
+DELETE FROM revoked_tokens;
+DELETE FROM refresh_tokens;
+DELETE FROM customers;
+DELETE FROM users;
\ No newline at end of file
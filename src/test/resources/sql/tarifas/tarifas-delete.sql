@@ -0,0 +1,8 @@
+DELETE FROM tarifas_descontos;
+DELETE FROM tarifas_faixas;
+DELETE FROM tarifas;
+DELETE FROM estacionamento_eventos;
+DELETE FROM revoked_tokens;
+DELETE FROM refresh_tokens;
+DELETE FROM customers;
+DELETE FROM users;
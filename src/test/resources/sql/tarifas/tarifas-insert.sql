@@ -0,0 +1,12 @@
+INSERT INTO users (id, username, password, role) VALUES (100, 'ana@gmail.com', '$2a$12$owXthEOpMCf19KQFz/u8y.Cd3pJXBtf4Z7q2vm9TGUeFAy2HRiTC6', 'ROLE_ADMIN');
+INSERT INTO users (id, username, password, role) VALUES (101, 'maria@gmail.com', '$2a$12$owXthEOpMCf19KQFz/u8y.Cd3pJXBtf4Z7q2vm9TGUeFAy2HRiTC6', 'ROLE_CLIENTE');
+
+INSERT INTO customers (id, nome, cpf, id_usuario) VALUES (11, 'Maria Santos', '89087145020', 101);
+
+-- Saídas de Maria: uma no dia anterior e duas no dia recalculado (1h e 2h de permanência), cobradas a 2,00 cada
+INSERT INTO estacionamento_eventos (recibo, tipo, cpf, id_vaga, codigo_vaga, zona, data_hora, data_entrada, valor)
+VALUES ('r1', 'SAIDA', '89087145020', 10, 'A-01', 'A', '2024-05-09 13:00:00', '2024-05-09 12:00:00', 2.00);
+INSERT INTO estacionamento_eventos (recibo, tipo, cpf, id_vaga, codigo_vaga, zona, data_hora, data_entrada, valor)
+VALUES ('r2', 'SAIDA', '89087145020', 10, 'A-01', 'A', '2024-05-10 11:00:00', '2024-05-10 10:00:00', 2.00);
+INSERT INTO estacionamento_eventos (recibo, tipo, cpf, id_vaga, codigo_vaga, zona, data_hora, data_entrada, valor)
+VALUES ('r3', 'SAIDA', '89087145020', 10, 'A-01', 'A', '2024-05-10 16:00:00', '2024-05-10 14:00:00', 2.00);
@@ -1 +1,3 @@
+DELETE FROM revoked_tokens;
+DELETE FROM refresh_tokens;
 DELETE FROM users;
\ No newline at end of file
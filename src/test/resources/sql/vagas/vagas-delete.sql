@@ -0,0 +1,4 @@
+DELETE FROM vagas;
+DELETE FROM revoked_tokens;
+DELETE FROM refresh_tokens;
+DELETE FROM users;
\ No newline at end of file
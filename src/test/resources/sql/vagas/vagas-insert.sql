@@ -0,0 +1,7 @@
+INSERT INTO users (id, username, password, role) VALUES (100, 'ana@gmail.com', '$2a$12$owXthEOpMCf19KQFz/u8y.Cd3pJXBtf4Z7q2vm9TGUeFAy2HRiTC6', 'ROLE_ADMIN');
+INSERT INTO users (id, username, password, role) VALUES (101, 'maria@gmail.com', '$2a$12$owXthEOpMCf19KQFz/u8y.Cd3pJXBtf4Z7q2vm9TGUeFAy2HRiTC6', 'ROLE_CLIENTE');
+
+INSERT INTO vagas (id, codigo, zona, status, versao) VALUES (10, 'A-01', 'A', 'LIVRE', 0);
+INSERT INTO vagas (id, codigo, zona, status, versao) VALUES (11, 'A-02', 'A', 'LIVRE', 0);
+INSERT INTO vagas (id, codigo, zona, status, versao) VALUES (12, 'A-03', 'A', 'LIVRE', 0);
+INSERT INTO vagas (id, codigo, zona, status, versao) VALUES (20, 'B-01', 'B', 'OCUPADA', 3);